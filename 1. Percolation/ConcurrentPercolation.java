@@ -0,0 +1,309 @@
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ConcurrentPercolation {
+
+    private static final int TOP = PercolationUF.TOP;
+    private static final int BOTTOM = PercolationUF.BOTTOM;
+    private static final long CLOSED = -1L;
+    // a site claimed by one opener and not yet visible as open; read as closed
+    private static final long OPENING = -2L;
+
+    // each site is one word, so a site's parent, size and flags change together:
+    // bits 0-31 the parent, bits 32-61 the size (saturating, meaningful at
+    // roots) and bits 62-63 the TOP/BOTTOM flags, 0x40/0x80 shifted up
+    private static final int FLAG_SHIFT = 56;
+    private static final int MAX_SIZE = (1 << 30) - 1;
+
+    // CLOSED for blocked sites; only a root's word gains flags or size, so a
+    // linked site's flags are a subset of its parent's, and every node's
+    // (size, index) is below its parent's, so links never form cycles
+    private final AtomicLongArray site;
+    // counts a site before it becomes visible as open, so it never lags isOpen()
+    private final AtomicInteger no_of_open;
+    private final int n;
+    private final int width;
+    private final int[] neighbors;
+    // set once a root with TOP and BOTTOM is published; spanning counts the
+    // CASes in flight that may publish one before percolates is set
+    private volatile boolean percolates;
+    private final AtomicInteger spanning;
+
+    // creates n-by-n grid, with all sites initially blocked, that any number of
+    // threads may open and query at the same time
+    public ConcurrentPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException();
+        this.n = n;
+        // sentinel ring of never-opened sites, as in Percolation
+        width = n + 2;
+        site = new AtomicLongArray(width * width);
+        for (int i = 0; i < width * width; i++) {
+            site.set(i, CLOSED);
+        }
+        no_of_open = new AtomicInteger();
+        spanning = new AtomicInteger();
+        neighbors = new int[] { 1, -1, width, -width };
+    }
+
+    private static long word(int parent, int size, int flags) {
+        return (long) flags << FLAG_SHIFT | (long) size << 32 | (parent & 0xFFFFFFFFL);
+    }
+
+    private static int parentOf(long w) {
+        return (int) w;
+    }
+
+    private static int sizeOf(long w) {
+        return (int) (w >>> 32) & MAX_SIZE;
+    }
+
+    private static int flagsOf(long w) {
+        return (int) (w >>> FLAG_SHIFT) & (TOP | BOTTOM);
+    }
+
+    // is w the word of an open site?
+    private static boolean isOpenWord(long w) {
+        return w != CLOSED && w != OPENING;
+    }
+
+    // index of (row, col) in the padded grid; row and col must be in range
+    private int convert_coordinates(int row, int col) {
+        return width * (row + 1) + col + 1;
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        int one_d = convert_coordinates(row, col);
+        if (site.get(one_d) != CLOSED) return;
+        int f = 0;
+        if (row == 0) f |= TOP;
+        if (row == n - 1) f |= BOTTOM;
+        // claim the site, count it, then make it open with its flags in one step
+        if (!site.compareAndSet(one_d, CLOSED, OPENING)) return;
+        no_of_open.incrementAndGet();
+        publish(one_d, OPENING, word(one_d, 1, f));
+        // of two neighbors opened at the same time, at least one sees the other
+        // open after publishing itself, so no connection is missed
+        for (int offset : neighbors) {
+            int other_d = one_d + offset;
+            if (isOpenWord(site.get(other_d))) union(one_d, other_d);
+        }
+    }
+
+    // root of the component of open site p, halving the path with CAS
+    private int find(int p) {
+        while (true) {
+            long w = site.get(p);
+            int q = parentOf(w);
+            if (q == p) return p;
+            int r = parentOf(site.get(q));
+            if (q != r) site.compareAndSet(p, w, word(r, sizeOf(w), flagsOf(w)));
+            p = r;
+        }
+    }
+
+    // merges the components of open sites p and q, the smaller under the larger
+    private void union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return;
+            long wordP = site.get(rootP);
+            long wordQ = site.get(rootQ);
+            if (parentOf(wordP) != rootP || parentOf(wordQ) != rootQ) continue;
+            // ties in size are broken by index, as links need a strict order
+            boolean pSmaller = sizeOf(wordP) != sizeOf(wordQ)
+                    ? sizeOf(wordP) < sizeOf(wordQ) : rootP < rootQ;
+            int child = pSmaller ? rootP : rootQ;
+            int root = pSmaller ? rootQ : rootP;
+            long childWord = pSmaller ? wordP : wordQ;
+            long rootWord = pSmaller ? wordQ : wordP;
+            // the root takes the child's flags before the child is linked, so no
+            // reader sees the merged component without them; the link fails and
+            // is retried if the child's word changed in between
+            int f = flagsOf(rootWord) | flagsOf(childWord);
+            if (f != flagsOf(rootWord)
+                    && !publish(root, rootWord, word(root, sizeOf(rootWord), f))) continue;
+            if (!site.compareAndSet(child, childWord, word(root, sizeOf(childWord), flagsOf(childWord)))) {
+                continue;
+            }
+            addSize(root, sizeOf(childWord));
+            return;
+        }
+    }
+
+    // CASes the root word of p from expect to update; when update is the first
+    // word with both TOP and BOTTOM, percolates() is kept from answering false
+    // between the CAS and the write of percolates
+    private boolean publish(int p, long expect, long update) {
+        if (flagsOf(update) != (TOP | BOTTOM)) return site.compareAndSet(p, expect, update);
+        spanning.incrementAndGet();
+        try {
+            if (!site.compareAndSet(p, expect, update)) return false;
+            percolates = true;
+            return true;
+        }
+        finally {
+            spanning.decrementAndGet();
+        }
+    }
+
+    // adds s to the size of the root of p, following the root if it moves
+    private void addSize(int p, int s) {
+        int root = p;
+        while (true) {
+            long w = site.get(root);
+            if (parentOf(w) != root) {
+                root = find(root);
+                continue;
+            }
+            int size = (int) Math.min((long) sizeOf(w) + s, MAX_SIZE);
+            if (site.compareAndSet(root, w, word(root, size, flagsOf(w)))) return;
+        }
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        return isOpenWord(site.get(convert_coordinates(row, col)));
+    }
+
+    // is the site (row, col) full? the flags of every site on the way up are a
+    // subset of the current root's, so TOP anywhere on the path means full, and
+    // a root read without TOP means not full at the moment it was read
+    public boolean isFull(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        int p = convert_coordinates(row, col);
+        long w = site.get(p);
+        if (!isOpenWord(w)) return false;
+        while (true) {
+            if ((flagsOf(w) & TOP) != 0) return true;
+            int q = parentOf(w);
+            if (q == p) return false;
+            p = q;
+            w = site.get(p);
+        }
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return no_of_open.get();
+    }
+
+    // does the system percolate? with no spanning root being published, the
+    // flag is up to date once re-read; otherwise the system percolates exactly
+    // when a bottom-row site is full, and full sites stay full, so a scan that
+    // finds none answers for the moment it started
+    public boolean percolates() {
+        if (percolates) return true;
+        if (spanning.get() == 0) return percolates;
+        for (int col = 0; col < n; col++) {
+            if (isFull(n - 1, col)) return true;
+        }
+        return percolates;
+    }
+
+    // opens all sites of an n-by-n grid in random order with the given number
+    // of threads and returns the elapsed time in seconds
+    private static double openWithThreads(ConcurrentPercolation perc, int[] sites, int threads) {
+        int n = perc.n;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int lo = (int) ((long) sites.length * t / threads);
+            int hi = (int) ((long) sites.length * (t + 1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = lo; i < hi; i++) {
+                    perc.open(sites[i] / n, sites[i] % n);
+                }
+            });
+        }
+        Stopwatch time = new Stopwatch();
+        for (Thread worker : workers) worker.start();
+        try {
+            for (Thread worker : workers) worker.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return time.elapsedTime();
+    }
+
+    // opens all sites of an n-by-n grid with the given number of threads while
+    // another thread keeps scanning the grid; returns false if any site it saw
+    // full was later reported not full, a site seen open was not yet counted
+    // by numberOfOpenSites(), or a full bottom-row site was seen while
+    // percolates() still answered false
+    private static boolean consistentWhileOpening(int n, int threads) {
+        ConcurrentPercolation perc = new ConcurrentPercolation(n);
+        int[] sites = StdRandom.permutation(n * n);
+        boolean[] seen = new boolean[n * n];
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean reverted = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int open = 0;
+                for (int i = 0; i < n * n; i++) {
+                    if (perc.isOpen(i / n, i % n)) open++;
+                    boolean full = perc.isFull(i / n, i % n);
+                    if (seen[i] && !full) reverted.set(true);
+                    if (full && i / n == n - 1 && !perc.percolates()) reverted.set(true);
+                    seen[i] |= full;
+                }
+                if (perc.numberOfOpenSites() < open) reverted.set(true);
+            }
+        });
+        reader.start();
+        openWithThreads(perc, sites, threads);
+        done.set(true);
+        try {
+            reader.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !reverted.get();
+    }
+
+    // unit testing: concurrent opens must agree with Percolation, then report
+    // open() throughput by thread count
+    public static void main(String[] args) {
+        int n = 200;
+        int[] sites = StdRandom.permutation(n * n);
+        int half = sites.length / 2;
+        ConcurrentPercolation perc = new ConcurrentPercolation(n);
+        Percolation check = new Percolation(n);
+        openWithThreads(perc, Arrays.copyOf(sites, half), 4);
+        for (int i = 0; i < half; i++) {
+            check.open(sites[i] / n, sites[i] % n);
+        }
+        boolean same = perc.percolates() == check.percolates()
+                && perc.numberOfOpenSites() == check.numberOfOpenSites();
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                if (perc.isFull(row, col) != check.isFull(row, col)) same = false;
+            }
+        }
+        System.out.println("Matches Percolation? = " + same);
+        boolean consistent = true;
+        for (int trial = 0; trial < 20; trial++) {
+            if (!consistentWhileOpening(100, 4)) consistent = false;
+        }
+        System.out.println("Consistent while opening? = " + consistent);
+
+        n = 2048;
+        sites = StdRandom.permutation(n * n);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("threads\topen() (M sites/s)");
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double elapsed = openWithThreads(new ConcurrentPercolation(n), sites, threads);
+            System.out.printf("%d\t%.2f%n", threads, sites.length / elapsed / 1e6);
+        }
+    }
+
+}
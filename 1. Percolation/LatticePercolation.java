@@ -0,0 +1,237 @@
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.BitSet;
+
+public class LatticePercolation {
+
+    private PercolationUF uf;
+    private int[] dims;       // extent of each dimension
+    private int[] strides;    // strides of the padded lattice
+    private int[][] neighborhood;
+    private int[] neighbors;  // padded index offsets of all neighbors, both directions
+    private int pad;
+    private int sites;
+    private BitSet top;
+    private BitSet bottom;
+    private int no_of_open;
+    private boolean bonds;
+
+    // creates a lattice with the given extents, all sites blocked, in which the
+    // sites with first coordinate 0 are on top and those with first coordinate
+    // dims[0] - 1 are on the bottom; neighborhood lists displacement vectors,
+    // and a site's neighbors are the in-range sites at +v and -v for each v
+    public LatticePercolation(int[] dims, int[][] neighborhood) {
+        this(dims, neighborhood, face(dims, 0), face(dims, dims[0] - 1));
+    }
+
+    // creates a lattice as above with explicit top and bottom sets, indexed by
+    // row-major site number
+    public LatticePercolation(int[] dims, int[][] neighborhood, BitSet top, BitSet bottom) {
+        if (dims == null || dims.length == 0 || neighborhood == null || top == null
+                || bottom == null) {
+            throw new IllegalArgumentException();
+        }
+        this.dims = dims.clone();
+        long count = 1;
+        for (int d : dims) {
+            if (d <= 0) throw new IllegalArgumentException();
+            count *= d;
+            if (count > Integer.MAX_VALUE) throw new IllegalArgumentException();
+        }
+        sites = (int) count;
+        this.neighborhood = new int[neighborhood.length][];
+        for (int k = 0; k < neighborhood.length; k++) {
+            if (neighborhood[k] == null || neighborhood[k].length != dims.length) {
+                throw new IllegalArgumentException();
+            }
+            this.neighborhood[k] = neighborhood[k].clone();
+            for (int x : neighborhood[k]) {
+                pad = Math.max(pad, Math.abs(x));
+            }
+        }
+
+        // a ring of pad never-opened sentinel sites on every side, so that
+        // neighbor offsets never leave the array, as in Percolation
+        strides = new int[dims.length];
+        long padded = 1;
+        for (int d = dims.length - 1; d >= 0; d--) {
+            strides[d] = (int) padded;
+            padded *= dims[d] + 2L * pad;
+            if (padded > Integer.MAX_VALUE) throw new IllegalArgumentException();
+        }
+        uf = new PercolationUF((int) padded);
+
+        neighbors = new int[2 * neighborhood.length];
+        for (int k = 0; k < neighborhood.length; k++) {
+            int offset = 0;
+            for (int d = 0; d < dims.length; d++) {
+                offset += neighborhood[k][d] * strides[d];
+            }
+            neighbors[2 * k] = offset;
+            neighbors[2 * k + 1] = -offset;
+        }
+        this.top = (BitSet) top.clone();
+        this.bottom = (BitSet) bottom.clone();
+    }
+
+    // sites with the given first coordinate
+    private static BitSet face(int[] dims, int first) {
+        if (dims == null || dims.length == 0 || dims[0] <= 0) throw new IllegalArgumentException();
+        long slab = 1;
+        for (int d = 1; d < dims.length; d++) {
+            slab *= dims[d];
+        }
+        if (slab * dims[0] > Integer.MAX_VALUE) throw new IllegalArgumentException();
+        BitSet face = new BitSet();
+        face.set((int) (first * slab), (int) ((first + 1) * slab));
+        return face;
+    }
+
+    // n-by-n square lattice with four neighbors, like Percolation
+    public static LatticePercolation square(int n) {
+        return new LatticePercolation(new int[] { n, n }, new int[][] { { 0, 1 }, { 1, 0 } });
+    }
+
+    // n-by-n square lattice with eight neighbors (Moore neighborhood)
+    public static LatticePercolation squareMoore(int n) {
+        return new LatticePercolation(new int[] { n, n },
+                                      new int[][] { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } });
+    }
+
+    // n-by-n-by-n simple cubic lattice with six neighbors
+    public static LatticePercolation cubic(int n) {
+        return new LatticePercolation(new int[] { n, n, n },
+                                      new int[][] { { 0, 0, 1 }, { 0, 1, 0 }, { 1, 0, 0 } });
+    }
+
+    // row-major site number of the given coordinates
+    public int site(int... coords) {
+        if (coords == null || coords.length != dims.length) throw new IllegalArgumentException();
+        int site = 0;
+        for (int d = 0; d < dims.length; d++) {
+            if (coords[d] < 0 || coords[d] >= dims[d]) throw new IllegalArgumentException();
+            site = site * dims[d] + coords[d];
+        }
+        return site;
+    }
+
+    // index of the given site in the padded lattice
+    private int padded(int site) {
+        if (site < 0 || site >= sites) throw new IllegalArgumentException();
+        int index = 0;
+        for (int d = dims.length - 1; d >= 0; d--) {
+            index += (site % dims[d] + pad) * strides[d];
+            site /= dims[d];
+        }
+        return index;
+    }
+
+    private int flags(int site) {
+        int flags = 0;
+        if (top.get(site)) flags |= PercolationUF.TOP;
+        if (bottom.get(site)) flags |= PercolationUF.BOTTOM;
+        return flags;
+    }
+
+    // site percolation: opens the site and connects it to its open neighbors
+    public void open(int site) {
+        if (bonds) throw new IllegalStateException("lattice is used for bond percolation");
+        int index = padded(site);
+        if (uf.isOpen(index)) return;
+        uf.open(index, flags(site));
+        no_of_open++;
+        for (int offset : neighbors) {
+            if (uf.isOpen(index + offset)) uf.union(index, index + offset);
+        }
+    }
+
+    // bond percolation: opens the bond between the site and its neighbor at
+    // +neighborhood[k]; all sites count as open once touched by a bond
+    public void openBond(int site, int k) {
+        if (no_of_open > 0 && !bonds) {
+            throw new IllegalStateException("lattice is used for site percolation");
+        }
+        if (k < 0 || k >= neighborhood.length) throw new IllegalArgumentException();
+        int index = padded(site);
+        int other = site;
+        int scale = 1;
+        for (int d = dims.length - 1; d >= 0; d--) {
+            int x = (site / scale) % dims[d] + neighborhood[k][d];
+            if (x < 0 || x >= dims[d]) throw new IllegalArgumentException("bond leaves the lattice");
+            other += neighborhood[k][d] * scale;
+            scale *= dims[d];
+        }
+        int otherIndex = padded(other);
+        // only a valid bond switches the lattice to bond percolation
+        bonds = true;
+        touch(index, site);
+        touch(otherIndex, other);
+        uf.union(index, otherIndex);
+    }
+
+    private void touch(int index, int site) {
+        if (uf.isOpen(index)) return;
+        uf.open(index, flags(site));
+        no_of_open++;
+    }
+
+    // is the site open?
+    public boolean isOpen(int site) {
+        return uf.isOpen(padded(site));
+    }
+
+    // is the site connected to a top site?
+    public boolean isFull(int site) {
+        return uf.isFull(padded(site));
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return no_of_open;
+    }
+
+    // returns the number of sites
+    public int numberOfSites() {
+        return sites;
+    }
+
+    // does some top site connect to some bottom site?
+    public boolean percolates() {
+        return uf.percolates();
+    }
+
+    // unit testing: estimated thresholds should be near 0.593 (square, site),
+    // 0.407 (Moore, site), 0.312 (cubic, site) and 0.5 (square, bond)
+    public static void main(String[] args) {
+        LatticePercolation[] lattices = { square(200), squareMoore(200), cubic(40) };
+        String[] names = { "square", "squareMoore", "cubic" };
+        for (int i = 0; i < lattices.length; i++) {
+            LatticePercolation lattice = lattices[i];
+            int[] order = StdRandom.permutation(lattice.numberOfSites());
+            int k = 0;
+            while (!lattice.percolates()) {
+                lattice.open(order[k++]);
+            }
+            System.out.println(names[i] + " site threshold = "
+                                       + (double) k / lattice.numberOfSites());
+        }
+
+        int n = 200;
+        LatticePercolation bond = square(n);
+        int[] order = StdRandom.permutation(2 * n * n);
+        int opened = 0;
+        int k = 0;
+        while (!bond.percolates()) {
+            int site = order[k] / 2;
+            int direction = order[k] % 2;
+            k++;
+            int row = site / n;
+            int col = site % n;
+            if ((direction == 0 && col == n - 1) || (direction == 1 && row == n - 1)) continue;
+            bond.openBond(site, direction);
+            opened++;
+        }
+        System.out.println("square bond threshold = " + (double) opened / (2 * n * (n - 1)));
+    }
+
+}
@@ -0,0 +1,307 @@
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedPercolation implements AutoCloseable {
+
+    private static final int TOP = PercolationUF.TOP;
+    private static final int BOTTOM = PercolationUF.BOTTOM;
+    private static final int RANK_MASK = 0x3f;
+
+    // sites are stored in 64-by-64 tiles, so the up/down neighbors of a site are
+    // 512 bytes away in the parent file instead of 8n bytes, and a local cluster
+    // touches a handful of pages
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE - 1;
+
+    private final int n;
+    private final long tilesPerRow;
+    private final Path parentFile;
+    private final Path stateFile;
+    private final FileChannel parentChannel;
+    private final FileChannel stateChannel;
+    private final LongStore parent;   // parent link + 1 of an open site, 0 if blocked
+    private final ByteStore state;    // rank in the low bits, TOP/BOTTOM flags above
+    private final Path ownedDir;      // temporary directory to remove on close, or null
+    private long no_of_open;
+    private boolean percolates;
+
+    // creates n-by-n grid, with all sites initially blocked, backed by files in a
+    // new temporary directory
+    public MappedPercolation(int n) {
+        // no directory is created for an invalid n
+        this(n, n <= 0 ? null : createTempDirectory(), true);
+    }
+
+    // creates n-by-n grid, with all sites initially blocked, backed by files in
+    // the given directory; blocked sites are all-zero, so the files start sparse
+    public MappedPercolation(int n, Path dir) {
+        this(n, dir, false);
+    }
+
+    // if anything fails, the channels already opened are closed and the files
+    // (and an owned directory) removed, as no instance is left to close
+    private MappedPercolation(int n, Path dir, boolean owned) {
+        if (n <= 0 || dir == null) throw new IllegalArgumentException();
+        this.n = n;
+        ownedDir = owned ? dir : null;
+        tilesPerRow = (n + TILE - 1) >>> TILE_SHIFT;
+        long sites = tilesPerRow * tilesPerRow * TILE * TILE;
+        Path[] files = new Path[2];
+        FileChannel[] channels = new FileChannel[2];
+        try {
+            files[0] = Files.createTempFile(dir, "parent", ".bin");
+            files[1] = Files.createTempFile(dir, "state", ".bin");
+            for (int i = 0; i < 2; i++) {
+                channels[i] = FileChannel.open(files[i], StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+            }
+            parent = new LongStore(channels[0], sites);
+            state = new ByteStore(channels[1], sites);
+        }
+        catch (IOException | RuntimeException e) {
+            for (FileChannel channel : channels) {
+                try {
+                    if (channel != null) channel.close();
+                }
+                catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            delete(e, files[0], files[1], ownedDir);
+            if (e instanceof IOException) throw new UncheckedIOException((IOException) e);
+            throw (RuntimeException) e;
+        }
+        parentFile = files[0];
+        stateFile = files[1];
+        parentChannel = channels[0];
+        stateChannel = channels[1];
+    }
+
+    // deletes the given paths in order, skipping nulls, adding any failure to e
+    private static void delete(Exception e, Path... paths) {
+        for (Path path : paths) {
+            try {
+                if (path != null) Files.deleteIfExists(path);
+            }
+            catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("percolation");
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // tiled index of (row, col); row and col must be in range
+    private long convert_coordinates(int row, int col) {
+        long tile = (row >>> TILE_SHIFT) * tilesPerRow + (col >>> TILE_SHIFT);
+        return (tile << (2 * TILE_SHIFT)) + ((row & TILE_MASK) << TILE_SHIFT) + (col & TILE_MASK);
+    }
+
+    private boolean isOpen(long p) {
+        return parent.get(p) != 0;
+    }
+
+    // root of the component of open site p, halving the path on the way up
+    private long find(long p) {
+        long q = parent.get(p) - 1;
+        while (q != p) {
+            long r = parent.get(q) - 1;
+            parent.set(p, r + 1);
+            p = r;
+            q = parent.get(p) - 1;
+        }
+        return p;
+    }
+
+    // merges the components of open sites p and q by rank, merging their flags
+    private void union(long p, long q) {
+        long rootP = find(p);
+        long rootQ = find(q);
+        if (rootP == rootQ) return;
+        int stateP = state.get(rootP) & 0xff;
+        int stateQ = state.get(rootQ) & 0xff;
+        int rankP = stateP & RANK_MASK;
+        int rankQ = stateQ & RANK_MASK;
+        int flags = (stateP | stateQ) & (TOP | BOTTOM);
+        if (rankP < rankQ) {
+            parent.set(rootP, rootQ + 1);
+            state.set(rootQ, (byte) (rankQ | flags));
+        }
+        else {
+            parent.set(rootQ, rootP + 1);
+            if (rankP == rankQ) rankP++;
+            state.set(rootP, (byte) (rankP | flags));
+        }
+        if (flags == (TOP | BOTTOM)) percolates = true;
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        long one_d = convert_coordinates(row, col);
+        if (isOpen(one_d)) return;
+        int flags = 0;
+        if (row == 0) flags |= TOP;
+        if (row == n - 1) flags |= BOTTOM;
+        parent.set(one_d, one_d + 1);
+        state.set(one_d, (byte) flags);
+        no_of_open++;
+        if (flags == (TOP | BOTTOM)) percolates = true;
+        if (col < n - 1) unionIfOpen(one_d, convert_coordinates(row, col + 1));
+        if (col > 0) unionIfOpen(one_d, convert_coordinates(row, col - 1));
+        if (row < n - 1) unionIfOpen(one_d, convert_coordinates(row + 1, col));
+        if (row > 0) unionIfOpen(one_d, convert_coordinates(row - 1, col));
+    }
+
+    private void unionIfOpen(long p, long q) {
+        if (isOpen(q)) union(p, q);
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        return isOpen(convert_coordinates(row, col));
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        long one_d = convert_coordinates(row, col);
+        return isOpen(one_d) && (state.get(find(one_d)) & TOP) != 0;
+    }
+
+    // returns the number of open sites; n * n can exceed the int range
+    public long numberOfOpenSites() {
+        return no_of_open;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // releases the backing files; called by try-with-resources, and the grid
+    // must not be used afterwards. The buffer references are dropped before the
+    // files are deleted, but Java has no call to unmap a MappedByteBuffer: the
+    // mappings themselves are released when the garbage collector frees the
+    // buffers, and until then the deleted files keep their disk space (on
+    // Windows, the delete may fail while the mapping is live)
+    public void close() {
+        parent.release();
+        state.release();
+        try {
+            parentChannel.close();
+            stateChannel.close();
+            Files.deleteIfExists(parentFile);
+            Files.deleteIfExists(stateFile);
+            if (ownedDir != null) Files.deleteIfExists(ownedDir);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // a long array of the given length mapped from a file in 1 GB segments,
+    // since a single MappedByteBuffer is limited to 2 GB
+    private static class LongStore {
+        private static final int SEGMENT_SHIFT = 27;   // longs per segment
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+        private final MappedByteBuffer[] segments;
+
+        LongStore(FileChannel channel, long length) throws IOException {
+            int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long size = Math.min(SEGMENT_MASK + 1, length - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * Long.BYTES,
+                                          size * Long.BYTES);
+            }
+        }
+
+        // drops the references to the mapped segments
+        void release() {
+            Arrays.fill(segments, null);
+        }
+
+        long get(long i) {
+            return segments[(int) (i >>> SEGMENT_SHIFT)].getLong((int) (i & SEGMENT_MASK) << 3);
+        }
+
+        void set(long i, long value) {
+            segments[(int) (i >>> SEGMENT_SHIFT)].putLong((int) (i & SEGMENT_MASK) << 3, value);
+        }
+    }
+
+    // a byte array of the given length mapped from a file in 1 GB segments
+    private static class ByteStore {
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+        private final MappedByteBuffer[] segments;
+
+        ByteStore(FileChannel channel, long length) throws IOException {
+            int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long size = Math.min(SEGMENT_MASK + 1, length - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+            }
+        }
+
+        // drops the references to the mapped segments
+        void release() {
+            Arrays.fill(segments, null);
+        }
+
+        byte get(long i) {
+            return segments[(int) (i >>> SEGMENT_SHIFT)].get((int) (i & SEGMENT_MASK));
+        }
+
+        void set(long i, byte value) {
+            segments[(int) (i >>> SEGMENT_SHIFT)].put((int) (i & SEGMENT_MASK), value);
+        }
+    }
+
+    // unit testing: must agree with Percolation on a grid that is not a whole
+    // number of tiles
+    public static void main(String[] args) {
+        int n = 150;
+        try (MappedPercolation perc = new MappedPercolation(n)) {
+            Percolation check = new Percolation(n);
+            int[] sites = StdRandom.permutation(n * n);
+            boolean same = true;
+            for (int i = 0; i < sites.length; i++) {
+                perc.open(sites[i] / n, sites[i] % n);
+                check.open(sites[i] / n, sites[i] % n);
+                if (perc.percolates() != check.percolates()) same = false;
+                if (i == sites.length * 3 / 5) {
+                    for (int row = 0; row < n; row++) {
+                        for (int col = 0; col < n; col++) {
+                            if (perc.isFull(row, col) != check.isFull(row, col)) same = false;
+                        }
+                    }
+                }
+            }
+            System.out.println("Matches Percolation? = " + same);
+            System.out.println("Open sites = " + perc.numberOfOpenSites());
+        }
+    }
+
+}
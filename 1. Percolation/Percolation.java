@@ -1,103 +1,118 @@
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import java.util.Arrays;
+import java.util.BitSet;
 
 public class Percolation {
 
-    private WeightedQuickUnionUF uf;
-    private WeightedQuickUnionUF uf2;
+    private PercolationUF uf;
     private int n;
     private int no_of_open;
-    private int[][] grid;
+    private int width;
+    private int[] neighbors;
+    private long[] openBits;  // bit-packed open sites, see PercolationFlood
+    private int words;
 
     // creates n-by-n grid, with all sites initially blocked
     public Percolation(int n) {
         if (n <= 0) throw new IllegalArgumentException();
         this.n = n;
         no_of_open = 0;
-        grid = new int[n][n];
-        uf = new WeightedQuickUnionUF(n * n + 2);
-        uf2 = new WeightedQuickUnionUF(n * n + 1);
-        for (int i = 1; i <= n; i++) {
-            uf.union(0, i);
-            uf2.union(0, i);
-        }
-        for (int i = 0; i < n; i++) {
-            int value = convert_coordinates(n - 1, i);
-            uf.union(n * n + 1, value);
-        }
+        // the grid is surrounded by a ring of sentinel sites that are never
+        // opened, so every site has four in-range neighbors
+        width = n + 2;
+        uf = new PercolationUF(width * width);
+        neighbors = new int[] { 1, -1, width, -width };
+        words = PercolationFlood.words(n);
+        openBits = new long[n * words];
     }
 
+    // index of (row, col) in the padded grid; row and col must be in range
     private int convert_coordinates(int row, int col) {
-        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
-        return n * row + col + 1;
+        return width * (row + 1) + col + 1;
     }
 
     // opens the site (row, col) if it is not open already
     public void open(int row, int col) {
         if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
-        int one_d = convert_coordinates(row, col);
-        if (grid[row][col] == 0) {
-            grid[row][col] = 1;
-            no_of_open++;
-            try {
-                if (isOpen(row, col + 1)) {
-                    int other_d = convert_coordinates(row, col + 1);
-                    uf.union(one_d, other_d);
-                    uf2.union(one_d, other_d);
-                }
-            }
-            catch (IllegalArgumentException ignored) {
-            }
-
-            try {
-                if (isOpen(row, col - 1)) {
-                    int other_d = convert_coordinates(row, col - 1);
-                    uf.union(one_d, other_d);
-                    uf2.union(one_d, other_d);
-                }
-            }
-            catch (IllegalArgumentException ignored) {
-            }
+        openSite(row, col);
+    }
 
-            try {
-                if (isOpen(row + 1, col)) {
-                    int other_d = convert_coordinates(row + 1, col);
-                    uf.union(one_d, other_d);
-                    uf2.union(one_d, other_d);
-                }
-            }
-            catch (IllegalArgumentException ignored) {
-            }
+    // opens the in-range site (row, col) if it is not open already
+    private void openSite(int row, int col) {
+        int one_d = convert_coordinates(row, col);
+        if (uf.isOpen(one_d)) return;
+        int flags = 0;
+        if (row == 0) flags |= PercolationUF.TOP;
+        if (row == n - 1) flags |= PercolationUF.BOTTOM;
+        uf.open(one_d, flags);
+        openBits[row * words + (col >>> 6)] |= 1L << col;
+        no_of_open++;
+        for (int offset : neighbors) {
+            int other_d = one_d + offset;
+            if (uf.isOpen(other_d)) uf.union(one_d, other_d);
+        }
+    }
 
-            try {
-                if (isOpen(row - 1, col)) {
-                    int other_d = convert_coordinates(row - 1, col);
-                    uf.union(one_d, other_d);
-                    uf2.union(one_d, other_d);
-                }
-            }
-            catch (IllegalArgumentException ignored) {
-            }
+    // opens the sites (rows[i], cols[i]) that are not open already
+    public void openAll(int[] rows, int[] cols) {
+        if (rows == null || cols == null || rows.length != cols.length) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            int col = cols[i];
+            if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+            openSite(row, col);
+        }
+    }
 
+    // opens every site (row, col) whose bit n * row + col is set
+    public void openFromBitSet(BitSet sites) {
+        if (sites == null || sites.length() > n * n) throw new IllegalArgumentException();
+        for (int i = sites.nextSetBit(0); i >= 0; i = sites.nextSetBit(i + 1)) {
+            openSite(i / n, i % n);
         }
     }
 
     // is the site (row, col) open?
     public boolean isOpen(int row, int col) {
         if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
-        if (grid[row][col] == 0) {
-            return false;
-        }
-        return true;
+        return uf.isOpen(convert_coordinates(row, col));
     }
 
     // is the site (row, col) full?
     public boolean isFull(int row, int col) {
         if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
-        int single_coordinate = convert_coordinates(row, col);
-        if (isOpen(row, col)) {
-            return (uf2.find(0) == uf2.find(single_coordinate));
+        return uf.isFull(convert_coordinates(row, col));
+    }
+
+    // sets bit n * row + col of out for every full site (row, col) and clears
+    // the others; an open site continues the component of an open left
+    // neighbor, so only the first site of each open run in a row needs a find
+    public void isFull(BitSet out) {
+        if (out == null) throw new IllegalArgumentException();
+        out.clear();
+        for (int row = 0; row < n; row++) {
+            int one_d = convert_coordinates(row, 0);
+            boolean full = false;
+            boolean run = false;
+            for (int col = 0; col < n; col++, one_d++) {
+                if (!uf.isOpen(one_d)) {
+                    run = false;
+                    continue;
+                }
+                if (!run) full = uf.isFull(one_d);
+                run = true;
+                if (full) out.set(n * row + col);
+            }
         }
-        return false;
+    }
+
+    // flood snapshot of the full sites, bit-packed like PercolationFlood: bit
+    // col % 64 of word row * ((n + 63) / 64) + col / 64 is set if (row, col) is
+    // full; computed from the open sites with word-parallel row fills instead
+    // of a union-find lookup per site
+    public long[] fullSites() {
+        return PercolationFlood.fill(openBits, n);
     }
 
     // returns the number of open sites
@@ -105,11 +120,40 @@ public class Percolation {
         return no_of_open;
     }
 
+    // number of sites in the cluster of the open site (row, col)
+    public int clusterSize(int row, int col) {
+        if (row < 0 || col < 0 || row > n - 1 || col > n - 1) throw new IllegalArgumentException();
+        int one_d = convert_coordinates(row, col);
+        if (!uf.isOpen(one_d)) throw new IllegalArgumentException("site is blocked");
+        return uf.size(one_d);
+    }
+
+    // number of clusters of open sites
+    public int numberOfClusters() {
+        return uf.clusters();
+    }
+
+    // number of sites in the largest cluster
+    public int largestClusterSize() {
+        return uf.largestClusterSize();
+    }
+
+    // number of clusters by size: entry k counts clusters with between 2^k and
+    // 2^(k+1) - 1 sites
+    public int[] clusterSizeHistogram() {
+        int[] histogram = new int[PercolationUF.BUCKETS];
+        uf.clusterSizeHistogram(histogram);
+        return histogram;
+    }
+
+    // fraction of all n * n sites that belong to a cluster spanning top to bottom
+    public double spanningClusterFraction() {
+        return (double) uf.spanningClusterSize() / ((double) n * n);
+    }
+
     // does the system percolate?
     public boolean percolates() {
-        // System.out.println(uf.find(0));
-        // System.out.println(uf.find(n * n + 1));
-        return (uf.find(0) == uf.find(n * n + 1));
+        return uf.percolates();
     }
 
     // unit testing (required)
@@ -128,6 +172,22 @@ public class Percolation {
         perc.open(4, 4);
         System.out.println("Percolates? = " + perc.percolates());
 
+        Percolation batch = new Percolation(n);
+        batch.openAll(new int[] { 0, 1, 2 }, new int[] { 1, 1, 1 });
+        BitSet sites = new BitSet(n * n);
+        sites.set(n * 3 + 1);
+        sites.set(n * 4 + 1);
+        sites.set(n * 4 + 3);
+        batch.openFromBitSet(sites);
+        BitSet full = new BitSet(n * n);
+        batch.isFull(full);
+        System.out.println("Full sites = " + full);
+        System.out.println("Percolates? = " + batch.percolates());
+        System.out.println("Clusters = " + batch.numberOfClusters());
+        System.out.println("Largest cluster = " + batch.largestClusterSize());
+        System.out.println("Histogram = " + Arrays.toString(batch.clusterSizeHistogram()));
+        System.out.println("Spanning fraction = " + batch.spanningClusterFraction());
+
     }
 
 }
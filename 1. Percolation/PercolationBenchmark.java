@@ -0,0 +1,218 @@
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.BitSet;
+import java.util.function.IntUnaryOperator;
+
+public class PercolationBenchmark {
+
+    // trial runner being measured
+    private interface Trial {
+        double run(int n, IntUnaryOperator uniform);
+    }
+
+    // average seconds per trial over the given number of trials
+    private static double secondsPerTrial(Trial trial, int n, int trials, long seed) {
+        Stopwatch time = new Stopwatch();
+        double sum = 0.0;
+        for (int i = 0; i < trials; i++) {
+            sum += trial.run(n, PercolationStats.trialRandom(seed, i)::nextInt);
+        }
+        double elapsed = time.elapsedTime();
+        // keep the result live so the trials cannot be optimized away
+        if (sum < 0) System.out.println(sum);
+        return elapsed / trials;
+    }
+
+    // rejection sampling vs. shuffled opening order for PercolationStats trials
+    private static void samplingModes(int lo, int hi, int trials) {
+        System.out.println("n\trejection (s)\tshuffle (s)\tspeedup");
+        for (int n = lo; n <= hi; n *= 2) {
+            secondsPerTrial(PercolationStats::rejectionTrial, n, 1, 0);
+            secondsPerTrial(PercolationStats::shuffleTrial, n, 1, 0);
+            double rejection = secondsPerTrial(PercolationStats::rejectionTrial, n, trials, 1);
+            double shuffle = secondsPerTrial(PercolationStats::shuffleTrial, n, trials, 1);
+            System.out.printf("%d\t%.4f\t\t%.4f\t\t%.2fx%n", n, rejection, shuffle,
+                              rejection / shuffle);
+        }
+    }
+
+    // random opening order of the n*n sites
+    private static int[] openingOrder(int n, long seed) {
+        IntUnaryOperator uniform = PercolationStats.trialRandom(seed, 0)::nextInt;
+        int[] sites = new int[n * n];
+        for (int i = 0; i < sites.length; i++) {
+            int j = uniform.applyAsInt(i + 1);
+            sites[i] = sites[j];
+            sites[j] = i;
+        }
+        return sites;
+    }
+
+    // millions of open() calls per second when opening every site of an
+    // n-by-n grid in random order, repeated until about 2^24 sites are opened
+    private static double openThroughput(int n) {
+        int[] sites = openingOrder(n, n);
+        int reps = Math.max(1, (1 << 24) / sites.length);
+        Stopwatch time = new Stopwatch();
+        int open = 0;
+        for (int r = 0; r < reps; r++) {
+            Percolation perc = new Percolation(n);
+            for (int site : sites) {
+                perc.open(site / n, site % n);
+            }
+            open += perc.numberOfOpenSites();
+        }
+        return open / time.elapsedTime() / 1e6;
+    }
+
+    // millions of sites per second for LatticePercolation.square(n), opened in
+    // the same order as openThroughput(n)
+    private static double latticeThroughput(int n) {
+        int[] sites = openingOrder(n, n);
+        int reps = Math.max(1, (1 << 24) / sites.length);
+        Stopwatch time = new Stopwatch();
+        int open = 0;
+        for (int r = 0; r < reps; r++) {
+            LatticePercolation lattice = LatticePercolation.square(n);
+            for (int site : sites) {
+                lattice.open(site);
+            }
+            open += lattice.numberOfOpenSites();
+        }
+        return open / time.elapsedTime() / 1e6;
+    }
+
+    // the 2D Percolation fast path against the general lattice engine
+    private static void latticeCost() {
+        System.out.println("n\tPercolation (M sites/s)\tLatticePercolation (M sites/s)");
+        int[] sizes = { 8, 256, 1024, 4096 };
+        for (int n : sizes) {
+            openThroughput(n);
+            latticeThroughput(n);
+            System.out.printf("%d\t%.2f\t\t\t%.2f%n", n, openThroughput(n), latticeThroughput(n));
+        }
+    }
+
+    // milliseconds to read every site's full status through isFull(), isFull(BitSet)
+    // and fullSites() on an n-by-n grid opened up to the percolation threshold
+    private static double[] floodCost(int n) {
+        int[] sites = openingOrder(n, n);
+        Percolation perc = new Percolation(n);
+        for (int i = 0; !perc.percolates(); i++) {
+            perc.open(sites[i] / n, sites[i] % n);
+        }
+        int reps = 3;
+        // full sites counted by each method, summed over the repetitions
+        long[] count = new long[3];
+        Stopwatch time = new Stopwatch();
+        for (int r = 0; r < reps; r++) {
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    if (perc.isFull(row, col)) count[0]++;
+                }
+            }
+        }
+        double perSite = time.elapsedTime() * 1000 / reps;
+        time = new Stopwatch();
+        BitSet mask = new BitSet(n * n);
+        for (int r = 0; r < reps; r++) {
+            perc.isFull(mask);
+            count[1] += mask.cardinality();
+        }
+        double bulk = time.elapsedTime() * 1000 / reps;
+        time = new Stopwatch();
+        for (int r = 0; r < reps; r++) {
+            for (long word : perc.fullSites()) {
+                count[2] += Long.bitCount(word);
+            }
+        }
+        double flood = time.elapsedTime() * 1000 / reps;
+        if (count[0] != count[1] || count[0] != count[2]) {
+            System.out.printf("full site counts disagree: isFull() %d, isFull(BitSet) %d, "
+                                      + "fullSites() %d%n", count[0], count[1], count[2]);
+        }
+        return new double[] { perSite, bulk, flood };
+    }
+
+    // cost of a full-site frame for visualization
+    private static void fullSiteCost() {
+        System.out.println("n\tisFull() (ms)\tisFull(BitSet) (ms)\tfullSites() (ms)");
+        int[] sizes = { 256, 1024, 4096 };
+        floodCost(1024);
+        for (int n : sizes) {
+            double[] ms = floodCost(n);
+            System.out.printf("%d\t%.1f\t\t%.1f\t\t\t%.1f%n", n, ms[0], ms[1], ms[2]);
+        }
+    }
+
+    // millions of open() calls per second for MappedPercolation, opened in the
+    // same order as openThroughput(n); each grid's files are released on exit
+    private static double mappedThroughput(int n) {
+        int[] sites = openingOrder(n, n);
+        int reps = Math.max(1, (1 << 24) / sites.length);
+        Stopwatch time = new Stopwatch();
+        long open = 0;
+        for (int r = 0; r < reps; r++) {
+            try (MappedPercolation perc = new MappedPercolation(n)) {
+                for (int site : sites) {
+                    perc.open(site / n, site % n);
+                }
+                open += perc.numberOfOpenSites();
+            }
+        }
+        return open / time.elapsedTime() / 1e6;
+    }
+
+    // the on-heap Percolation against the memory-mapped backend
+    private static void mappedCost() {
+        System.out.println("n\tPercolation (M sites/s)\tMappedPercolation (M sites/s)");
+        int[] sizes = { 256, 1024, 4096 };
+        for (int n : sizes) {
+            openThroughput(n);
+            mappedThroughput(n);
+            System.out.printf("%d\t%.2f\t\t\t%.2f%n", n, openThroughput(n), mappedThroughput(n));
+        }
+    }
+
+    // heap retained by a fresh n-by-n Percolation, in MB
+    private static double footprint(int n) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Percolation perc = new Percolation(n);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        if (perc.numberOfOpenSites() != 0) System.out.println(perc.numberOfOpenSites());
+        return (after - before) / 1e6;
+    }
+
+    // open() throughput on small grids, where most sites lie on the border, and
+    // on large grids, plus the footprint of a large grid
+    private static void openCost() {
+        System.out.println("n\topen() (M sites/s)");
+        int[] sizes = { 4, 8, 32, 256, 1024, 4096 };
+        for (int n : sizes) {
+            openThroughput(n);
+            System.out.printf("%d\t%.2f%n", n, openThroughput(n));
+        }
+        System.out.printf("Percolation(4096) heap: %.0f MB%n", footprint(4096));
+    }
+
+    // usage: PercolationBenchmark [lo hi trials]
+    public static void main(String[] args) {
+        int lo = 512;
+        int hi = 4096;
+        int trials = 3;
+        if (args.length >= 3) {
+            lo = Integer.parseInt(args[0]);
+            hi = Integer.parseInt(args[1]);
+            trials = Integer.parseInt(args[2]);
+        }
+        samplingModes(lo, hi, trials);
+        openCost();
+        latticeCost();
+        mappedCost();
+        fullSiteCost();
+    }
+
+}
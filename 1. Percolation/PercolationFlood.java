@@ -0,0 +1,109 @@
+public class PercolationFlood {
+
+    private PercolationFlood() { }
+
+    // number of 64-bit words per row of a bit-packed n-by-n grid, in which
+    // (row, col) is bit col % 64 of word row * words(n) + col / 64
+    public static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    // full sites of an n-by-n grid given its bit-packed open sites: a flood
+    // fill over 64-site words seeded by the open sites of the top row; a word
+    // that gains full sites fills its open runs in a few word operations and
+    // queues the words above, below and, if a run reaches its edge, beside it
+    public static long[] fill(long[] open, int n) {
+        int words = words(n);
+        if (n <= 0 || open == null || open.length != n * words) throw new IllegalArgumentException();
+        long[] full = new long[open.length];
+        int[] stack = new int[open.length];
+        boolean[] queued = new boolean[open.length];
+        int size = 0;
+        for (int w = 0; w < words; w++) {
+            full[w] = open[w];
+            if (n > 1 && open[w] != 0) {
+                stack[size++] = words + w;
+                queued[words + w] = true;
+            }
+        }
+        while (size > 0) {
+            int i = stack[--size];
+            queued[i] = false;
+            int row = i / words;
+            int w = i - row * words;
+            long m = open[i];
+            long before = full[i];
+            long seed = 0;
+            if (row > 0) seed |= full[i - words];
+            if (row < n - 1) seed |= full[i + words];
+            if (w > 0 && full[i - 1] < 0) seed |= 1L;
+            if (w < words - 1 && (full[i + 1] & 1L) != 0) seed |= 1L << 63;
+            seed &= m & ~before;
+            if (seed == 0) continue;
+            long after = fillRuns(before | seed, m);
+            full[i] = after;
+            long gained = after & ~before;
+            if (row > 0 && (gained & open[i - words]) != 0 && !queued[i - words]) {
+                stack[size++] = i - words;
+                queued[i - words] = true;
+            }
+            if (row < n - 1 && (gained & open[i + words]) != 0 && !queued[i + words]) {
+                stack[size++] = i + words;
+                queued[i + words] = true;
+            }
+            if (w > 0 && (gained & 1L) != 0 && open[i - 1] < 0 && !queued[i - 1]) {
+                stack[size++] = i - 1;
+                queued[i - 1] = true;
+            }
+            if (w < words - 1 && gained < 0 && (open[i + 1] & 1L) != 0 && !queued[i + 1]) {
+                stack[size++] = i + 1;
+                queued[i + 1] = true;
+            }
+        }
+        return full;
+    }
+
+    // extends the full sites x of a word to the whole runs of open sites m that
+    // contain them; adding x to m carries through each run above its lowest
+    // full site, so the bits the sum clears are the upward fill, and the same
+    // on the bit-reversed word gives the downward fill
+    private static long fillRuns(long x, long m) {
+        long up = ((m + x) ^ m) & m | x;
+        long rm = Long.reverse(m);
+        long down = ((rm + Long.reverse(x)) ^ rm) & rm;
+        return up | Long.reverse(down);
+    }
+
+    // unit testing: a serpentine path has to be followed down, up and down again
+    public static void main(String[] args) {
+        String[] grid = {
+                "#.######",
+                "#.#...##",
+                "#.#.#.##",
+                "#...#.#.",
+                "#####.#.",
+                "##....#.",
+                "##.####.",
+                "##.#####",
+        };
+        int n = grid.length;
+        int words = words(n);
+        long[] open = new long[n * words];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                if (grid[row].charAt(col) == '.') open[row * words + (col >>> 6)] |= 1L << col;
+            }
+        }
+        long[] full = fill(open, n);
+        for (int row = 0; row < n; row++) {
+            StringBuilder line = new StringBuilder();
+            for (int col = 0; col < n; col++) {
+                boolean isOpen = (open[row * words + (col >>> 6)] & (1L << col)) != 0;
+                boolean isFull = (full[row * words + (col >>> 6)] & (1L << col)) != 0;
+                line.append(isFull ? 'o' : isOpen ? '.' : '#');
+            }
+            System.out.println(line);
+        }
+    }
+
+}
@@ -1,10 +1,16 @@
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
 import edu.princeton.cs.algs4.Stopwatch;
 
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
 public class PercolationStats {
 
-    private double[] open_sites;
+    // trials per convergence check of the early-stopping constructor; fixed so
+    // the number of trials run does not depend on the number of cores
+    private static final int BATCH = 16;
+
     private double trials;
     private double mean_var;
     private double sttdev_var;
@@ -12,67 +18,188 @@ public class PercolationStats {
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
         if (n <= 0 || trials <= 0) throw new IllegalArgumentException();
-        open_sites = new double[trials];
         this.trials = trials;
+        RunningStats stats = new RunningStats();
         for (int i = 0; i < trials; i++) {
-            Percolation perc = new Percolation(n);
-            // System.out.println(i);
-            while (!perc.percolates()) {
-                int row;
-                int col;
-                do {
-                    row = StdRandom.uniform(0, n);
-                    col = StdRandom.uniform(0, n);
-                } while (perc.isOpen(row, col));
-                perc.open(row, col);
-                open_sites[i]++;
+            stats.add(rejectionTrial(n, StdRandom::uniform));
+        }
+        summarize(stats);
+    }
 
-            }
-            open_sites[i] /= (n * n);
-            // System.out.println("i = " + i + "opensites = " + open_sites[i]);
+    // perform independent trials on an n-by-n grid in parallel; trial i draws
+    // from its own generator derived from seed, so results are reproducible,
+    // and opens sites in shuffled order rather than by rejection sampling
+    public PercolationStats(int n, int trials, long seed) {
+        if (n <= 0 || trials <= 0) throw new IllegalArgumentException();
+        this.trials = trials;
+        RunningStats stats = IntStream.range(0, trials)
+                                      .parallel()
+                                      .mapToDouble(i -> shuffleTrial(n, trialRandom(seed, i)::nextInt))
+                                      .collect(RunningStats::new, RunningStats::add,
+                                               RunningStats::combine);
+        summarize(stats);
+    }
+
+    // perform trials on an n-by-n grid as in PercolationStats(n, trials, seed), in
+    // batches, until the 95% confidence interval is at most halfWidth on either
+    // side of mean() or maxTrials trials have run
+    public PercolationStats(int n, double halfWidth, int maxTrials, long seed) {
+        if (n <= 0 || maxTrials <= 0 || !(halfWidth > 0)) throw new IllegalArgumentException();
+        RunningStats stats = new RunningStats();
+        int done = 0;
+        while (done < maxTrials) {
+            int lo = done;
+            int hi = (int) Math.min(maxTrials, (long) done + BATCH);
+            stats.combine(IntStream.range(lo, hi)
+                                   .parallel()
+                                   .mapToDouble(i -> shuffleTrial(n, trialRandom(seed, i)::nextInt))
+                                   .collect(RunningStats::new, RunningStats::add,
+                                            RunningStats::combine));
+            done = hi;
+            if (done >= 2 && 1.96 * stats.stddev() / Math.sqrt(done) <= halfWidth) break;
+        }
+        this.trials = done;
+        summarize(stats);
+    }
+
+    // independent generator for trial i: the (seed, i) pair is scrambled with the
+    // SplitMix64 finalizer, since seeds that differ by the golden gamma would
+    // otherwise give shifted copies of the same stream
+    static SplittableRandom trialRandom(long seed, int i) {
+        long z = seed + 0x9E3779B97F4A7C15L * (i + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    // opens random sites until the grid percolates and returns the open fraction;
+    // uniform.applyAsInt(n) must return an integer in [0, n)
+    static double rejectionTrial(int n, IntUnaryOperator uniform) {
+        Percolation perc = new Percolation(n);
+        while (!perc.percolates()) {
+            int row;
+            int col;
+            do {
+                row = uniform.applyAsInt(n);
+                col = uniform.applyAsInt(n);
+            } while (perc.isOpen(row, col));
+            perc.open(row, col);
+        }
+        return (double) perc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    // same as rejectionTrial(), but draws the opening order as a lazy partial
+    // Fisher-Yates shuffle of the n*n sites, so each step opens a blocked site
+    // at O(1) cost instead of retrying draws that land on open sites; the
+    // permutation starts as the identity without being written: moved[j] holds
+    // the site at position j plus one, or 0 if position j still holds site j
+    static double shuffleTrial(int n, IntUnaryOperator uniform) {
+        Percolation perc = new Percolation(n);
+        int[] moved = new int[n * n];
+        int k = 0;
+        while (!perc.percolates()) {
+            int j = k + uniform.applyAsInt(moved.length - k);
+            int site = moved[j] == 0 ? j : moved[j] - 1;
+            // position k is never read again, so only position j is written
+            moved[j] = moved[k] == 0 ? k + 1 : moved[k];
+            perc.open(site / n, site % n);
+            k++;
         }
+        return (double) perc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    private void summarize(RunningStats stats) {
+        mean_var = stats.mean();
+        sttdev_var = stats.stddev();
+    }
+
+    // number of trials performed
+    public int trials() {
+        return (int) trials;
     }
 
     // sample mean of percolation threshold
     public double mean() {
-        mean_var = StdStats.mean(open_sites);
         return mean_var;
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
-        sttdev_var = StdStats.stddev(open_sites);
         return sttdev_var;
     }
 
     // low endpoint of 95% confidence interval
     public double confidenceLow() {
-        // double my_mean = mean();
-        // double my_stddev = stddev();
         double ans = mean_var - (1.96 * sttdev_var) / Math.sqrt(trials);
         return ans;
     }
 
     // high endpoint of 95% confidence interval
     public double confidenceHigh() {
-        // double my_mean = mean();
-        // double my_stddev = stddev();
         double ans = mean_var + (1.96 * sttdev_var) / Math.sqrt(trials);
         return ans;
     }
 
-    // test client (see below)
+    // streaming mean and variance (Welford), mergeable across workers (Chan et al.)
+    private static class RunningStats {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        void combine(RunningStats that) {
+            if (that.count == 0) return;
+            if (count == 0) {
+                count = that.count;
+                mean = that.mean;
+                m2 = that.m2;
+                return;
+            }
+            long total = count + that.count;
+            double delta = that.mean - mean;
+            mean += delta * that.count / total;
+            m2 += that.m2 + delta * delta * ((double) count * that.count / total);
+            count = total;
+        }
+
+        double mean() {
+            if (count == 0) return Double.NaN;
+            return mean;
+        }
+
+        // sample standard deviation, matching StdStats.stddev()
+        double stddev() {
+            if (count < 2) return Double.NaN;
+            return Math.sqrt(m2 / (count - 1));
+        }
+    }
+
+    // test client: n trials [seed [halfWidth]]; with halfWidth, trials is the
+    // maximum number of trials
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int trials = Integer.parseInt(args[1]);
         Stopwatch time = new Stopwatch();
-        PercolationStats pstats = new PercolationStats(n, trials);
+        PercolationStats pstats;
+        if (args.length > 3) {
+            pstats = new PercolationStats(n, Double.parseDouble(args[3]), trials,
+                                          Long.parseLong(args[2]));
+        }
+        else if (args.length > 2) pstats = new PercolationStats(n, trials, Long.parseLong(args[2]));
+        else pstats = new PercolationStats(n, trials);
 
         double x_mean = pstats.mean();
         double x_stddev = pstats.stddev();
         double conf_low = pstats.confidenceLow();
         double conf_high = pstats.confidenceHigh();
         double elapsed_time = time.elapsedTime();
+        System.out.println("trials() = " + pstats.trials());
         System.out.println("mean() = " + x_mean);
         System.out.println("stddev() = " + x_stddev);
         System.out.println("confidenceLow() = " + conf_low);
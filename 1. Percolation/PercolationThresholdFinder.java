@@ -0,0 +1,81 @@
+import edu.princeton.cs.algs4.StdRandom;
+
+public class PercolationThresholdFinder {
+
+    private int n;
+    private int step;
+    private int open;
+
+    // finds percolation thresholds of opening sequences on an n-by-n grid
+    public PercolationThresholdFinder(int n) {
+        if (n <= 0) throw new IllegalArgumentException();
+        this.n = n;
+    }
+
+    // replays the opening sequence (site = n * row + col) in a single pass and
+    // returns the 1-based step at which the system first percolates, or -1 if
+    // it never does; percolation is a flag kept by the union-find, so no step
+    // pays for a find() beyond the unions of the opened site
+    public int firstPercolatingStep(int[] sites) {
+        if (sites == null) throw new IllegalArgumentException();
+        Percolation perc = new Percolation(n);
+        step = -1;
+        for (int i = 0; i < sites.length; i++) {
+            int site = sites[i];
+            if (site < 0 || site >= n * n) throw new IllegalArgumentException();
+            perc.open(site / n, site % n);
+            if (perc.percolates()) {
+                step = i + 1;
+                break;
+            }
+        }
+        open = perc.numberOfOpenSites();
+        return step;
+    }
+
+    // same as firstPercolatingStep(int[]) for the sequence (rows[i], cols[i])
+    public int firstPercolatingStep(int[] rows, int[] cols) {
+        if (rows == null || cols == null || rows.length != cols.length) {
+            throw new IllegalArgumentException();
+        }
+        Percolation perc = new Percolation(n);
+        step = -1;
+        for (int i = 0; i < rows.length; i++) {
+            perc.open(rows[i], cols[i]);
+            if (perc.percolates()) {
+                step = i + 1;
+                break;
+            }
+        }
+        open = perc.numberOfOpenSites();
+        return step;
+    }
+
+    // fraction of sites open when the last replayed sequence first percolated,
+    // or NaN if it never did
+    public double threshold() {
+        if (step < 0) return Double.NaN;
+        return (double) open / ((double) n * n);
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        int n = 5;
+        PercolationThresholdFinder finder = new PercolationThresholdFinder(n);
+        int[] rows = { 0, 1, 4, 2, 3, 1, 4 };
+        int[] cols = { 2, 2, 2, 2, 0, 2, 3 };
+        System.out.println("Step = " + finder.firstPercolatingStep(rows, cols));
+        System.out.println("Threshold = " + finder.threshold());
+        rows[4] = 3;
+        cols[4] = 2;
+        System.out.println("Step = " + finder.firstPercolatingStep(rows, cols));
+        System.out.println("Threshold = " + finder.threshold());
+
+        n = 200;
+        finder = new PercolationThresholdFinder(n);
+        int[] sites = StdRandom.permutation(n * n);
+        System.out.println("Step = " + finder.firstPercolatingStep(sites));
+        System.out.println("Threshold = " + finder.threshold());
+    }
+
+}
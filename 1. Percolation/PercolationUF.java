@@ -0,0 +1,162 @@
+public class PercolationUF {
+
+    // flags carried by the root of a component
+    public static final int TOP = 0x40;
+    public static final int BOTTOM = 0x80;
+
+    // number of cluster-size histogram buckets; bucket k counts clusters with
+    // between 2^k and 2^(k+1) - 1 sites
+    public static final int BUCKETS = 31;
+
+    private static final int SPANNING = TOP | BOTTOM;
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    private int[] parent;   // parent link of a non-root, -size of a root, CLOSED if blocked
+    private byte[] state;   // TOP/BOTTOM flags of a root
+    private boolean percolates;
+
+    // cluster bookkeeping, updated on every open() and union()
+    private int clusters;
+    private int largest;
+    private int spanningSize;
+    private int[] histogram;
+
+    // creates a union-find over the given number of sites, all blocked
+    public PercolationUF(int sites) {
+        if (sites <= 0) throw new IllegalArgumentException();
+        parent = new int[sites];
+        state = new byte[sites];
+        histogram = new int[BUCKETS];
+        for (int i = 0; i < sites; i++) {
+            parent[i] = CLOSED;
+        }
+    }
+
+    // histogram bucket of a cluster of the given size
+    private static int bucket(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size);
+    }
+
+    // opens site p as a singleton component carrying the given TOP/BOTTOM flags
+    public void open(int p, int flags) {
+        if (parent[p] != CLOSED) return;
+        parent[p] = -1;
+        state[p] = (byte) (flags & SPANNING);
+        clusters++;
+        histogram[0]++;
+        if (largest == 0) largest = 1;
+        if ((flags & SPANNING) == SPANNING) {
+            percolates = true;
+            spanningSize++;
+        }
+    }
+
+    // is site p open?
+    public boolean isOpen(int p) {
+        return parent[p] != CLOSED;
+    }
+
+    // root of the component of open site p, halving the path on the way up
+    public int find(int p) {
+        while (parent[p] >= 0) {
+            int q = parent[p];
+            if (parent[q] < 0) return q;
+            parent[p] = parent[q];
+            p = parent[q];
+        }
+        return p;
+    }
+
+    // merges the components of open sites p and q by size, merging their flags
+    // and updating the cluster statistics
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+        int sizeP = -parent[rootP];
+        int sizeQ = -parent[rootQ];
+        int size = sizeP + sizeQ;
+        int flags = (state[rootP] | state[rootQ]) & SPANNING;
+        if ((state[rootP] & SPANNING) == SPANNING) spanningSize -= sizeP;
+        if ((state[rootQ] & SPANNING) == SPANNING) spanningSize -= sizeQ;
+        if (sizeP < sizeQ) {
+            parent[rootP] = rootQ;
+            parent[rootQ] = -size;
+            state[rootQ] = (byte) flags;
+        }
+        else {
+            parent[rootQ] = rootP;
+            parent[rootP] = -size;
+            state[rootP] = (byte) flags;
+        }
+        clusters--;
+        histogram[bucket(sizeP)]--;
+        histogram[bucket(sizeQ)]--;
+        histogram[bucket(size)]++;
+        if (size > largest) largest = size;
+        if (flags == SPANNING) {
+            percolates = true;
+            spanningSize += size;
+        }
+    }
+
+    // TOP/BOTTOM flags of the component of open site p
+    public int flags(int p) {
+        return state[find(p)] & SPANNING;
+    }
+
+    // is open site p connected to a TOP site?
+    public boolean isFull(int p) {
+        return parent[p] != CLOSED && (state[find(p)] & TOP) != 0;
+    }
+
+    // does some component contain both a TOP and a BOTTOM site?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // number of sites in the component of open site p
+    public int size(int p) {
+        return -parent[find(p)];
+    }
+
+    // number of components of open sites
+    public int clusters() {
+        return clusters;
+    }
+
+    // number of sites in the largest component
+    public int largestClusterSize() {
+        return largest;
+    }
+
+    // total number of sites in components that contain TOP and BOTTOM sites
+    public int spanningClusterSize() {
+        return spanningSize;
+    }
+
+    // copies the cluster-size histogram (see BUCKETS) into out
+    public void clusterSizeHistogram(int[] out) {
+        System.arraycopy(histogram, 0, out, 0, BUCKETS);
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        PercolationUF uf = new PercolationUF(4);
+        uf.open(0, TOP);
+        uf.open(3, BOTTOM);
+        uf.open(1, 0);
+        uf.union(0, 1);
+        System.out.println("Is 1 Full? = " + uf.isFull(1));
+        System.out.println("Percolates? = " + uf.percolates());
+        System.out.println("Clusters = " + uf.clusters());
+        uf.open(2, 0);
+        uf.union(2, 3);
+        uf.union(1, 2);
+        System.out.println("Is 3 Full? = " + uf.isFull(3));
+        System.out.println("Percolates? = " + uf.percolates());
+        System.out.println("Largest cluster = " + uf.largestClusterSize());
+        System.out.println("Spanning cluster = " + uf.spanningClusterSize());
+    }
+
+}
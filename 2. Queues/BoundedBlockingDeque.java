@@ -0,0 +1,279 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>BoundedBuffer</code> backed by a <code>Deque</code>. The inherited
+ * <code>put</code>, <code>offer</code>, <code>take</code>, <code>poll</code>
+ * and the batch methods are first-in first-out: items are added at the back
+ * and taken from the front. The <code>...First</code> and
+ * <code>...Last</code> methods block, time out or fail at either end, so the
+ * buffer can also be used as a bounded stack or a work deque.
+ */
+public class BoundedBlockingDeque<Item> extends BoundedBuffer<Item> {
+
+    private final Deque<Item> deque = new Deque<Item>();
+
+    /**
+     * Constructor for <code>BoundedBlockingDeque</code>
+     *
+     * @param capacity the maximum number of items
+     */
+    public BoundedBlockingDeque(int capacity) {
+        super(capacity);
+    }
+
+    protected void insert(Item item) {
+        deque.addLast(item);
+    }
+
+    protected Item extract() {
+        return deque.removeFirst();
+    }
+
+    /**
+     * Adds an item to the front of the deque; called with the lock held
+     */
+    private void insertFirst(Item item) {
+        deque.addFirst(item);
+    }
+
+    /**
+     * Removes the item at the back of the non-empty deque; called with the
+     * lock held
+     */
+    private Item extractLast() {
+        return deque.removeLast();
+    }
+
+    protected int count() {
+        return deque.size();
+    }
+
+
+    /**
+     * Adds the item to the front, waiting while the buffer is full
+     *
+     * @param item the item to add
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void putFirst(Item item) throws InterruptedException {
+        put(item, this::insertFirst);
+    }
+
+
+    /**
+     * Adds the item to the back, waiting while the buffer is full
+     *
+     * @param item the item to add
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void putLast(Item item) throws InterruptedException {
+        put(item, this::insert);
+    }
+
+
+    /**
+     * Adds the item to the front if there is room
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if the buffer is full
+     */
+    public boolean offerFirst(Item item) {
+        return offer(item, this::insertFirst);
+    }
+
+
+    /**
+     * Adds the item to the back if there is room
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if the buffer is full
+     */
+    public boolean offerLast(Item item) {
+        return offer(item, this::insert);
+    }
+
+
+    /**
+     * Adds the item to the front, waiting up to the given time for room
+     *
+     * @param item    the item to add
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return true if the item was added, false if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offerFirst(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(item, this::insertFirst, timeout, unit);
+    }
+
+
+    /**
+     * Adds the item to the back, waiting up to the given time for room
+     *
+     * @param item    the item to add
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return true if the item was added, false if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offerLast(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(item, this::insert, timeout, unit);
+    }
+
+
+    /**
+     * Removes and returns the item at the front, waiting while the buffer is
+     * empty
+     *
+     * @return the item removed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item takeFirst() throws InterruptedException {
+        return take(this::extract);
+    }
+
+
+    /**
+     * Removes and returns the item at the back, waiting while the buffer is
+     * empty
+     *
+     * @return the item removed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item takeLast() throws InterruptedException {
+        return take(this::extractLast);
+    }
+
+
+    /**
+     * Removes and returns the item at the front, or null if the buffer is
+     * empty
+     *
+     * @return the item removed, or null
+     */
+    public Item pollFirst() {
+        return poll(this::extract);
+    }
+
+
+    /**
+     * Removes and returns the item at the back, or null if the buffer is
+     * empty
+     *
+     * @return the item removed, or null
+     */
+    public Item pollLast() {
+        return poll(this::extractLast);
+    }
+
+
+    /**
+     * Removes and returns the item at the front, waiting up to the given time
+     * for one
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return the item removed, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(this::extract, timeout, unit);
+    }
+
+
+    /**
+     * Removes and returns the item at the back, waiting up to the given time
+     * for one
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return the item removed, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(this::extractLast, timeout, unit);
+    }
+
+
+    /**
+     * Unit tests the <code>BoundedBlockingDeque</code> data type: a fast
+     * producer feeds a consumer that drains in batches through a small buffer
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws InterruptedException {
+        BoundedBlockingDeque<Integer> queue = new BoundedBlockingDeque<Integer>(4);
+        StdOut.println(queue.offer(1) + " " + queue.poll() + " " + queue.poll());
+        StdOut.println(queue.poll(10, TimeUnit.MILLISECONDS));
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = 0; i < 6; i++) batch.add(i);
+        StdOut.println(queue.offerAll(batch) + " " + queue.size());
+        StdOut.println(queue.offer(9, 10, TimeUnit.MILLISECONDS));
+        batch.clear();
+        StdOut.println(queue.drainTo(batch, 3) + " " + batch + " " + queue.take());
+
+        // both ends: a bounded stack at the back, and items pushed at the front
+        queue.putLast(1);
+        queue.putLast(2);
+        queue.offerFirst(0);
+        StdOut.println(queue.offerLast(3) + " " + queue.offerFirst(-1, 10, TimeUnit.MILLISECONDS));
+        StdOut.println(queue.takeLast() + " " + queue.pollLast() + " " + queue.takeFirst() + " "
+                               + queue.pollFirst() + " " + queue.pollLast(10, TimeUnit.MILLISECONDS));
+
+        int n = 1000000;
+        AtomicLong sum = new AtomicLong();
+        BoundedBlockingDeque<Integer> pipe = new BoundedBlockingDeque<Integer>(1024);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < n; i++) pipe.put(i);
+                pipe.put(-1);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            List<Integer> out = new ArrayList<Integer>();
+            int expected = 0;
+            try {
+                while (true) {
+                    out.add(pipe.take());
+                    pipe.drainTo(out, 255);
+                    for (int x : out) {
+                        if (x < 0) return;
+                        // FIFO: items arrive in the order they were put
+                        if (x != expected++) sum.set(Long.MIN_VALUE);
+                        sum.addAndGet(x);
+                    }
+                    out.clear();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        StdOut.println((sum.get() == (long) n * (n - 1) / 2) + " " + pipe.isEmpty());
+        StdOut.printf("put wait %.1f ms, take wait %.1f ms%n", pipe.putWaitNanos() / 1e6,
+                      pipe.takeWaitNanos() / 1e6);
+    }
+
+}
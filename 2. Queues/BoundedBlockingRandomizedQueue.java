@@ -0,0 +1,78 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>BoundedBuffer</code> backed by a <code>RandomizedQueue</code>: each
+ * <code>take</code> returns a uniformly random buffered item
+ */
+public class BoundedBlockingRandomizedQueue<Item> extends BoundedBuffer<Item> {
+
+    private final RandomizedQueue<Item> queue = new RandomizedQueue<Item>();
+
+    /**
+     * Constructor for <code>BoundedBlockingRandomizedQueue</code>
+     *
+     * @param capacity the maximum number of items
+     */
+    public BoundedBlockingRandomizedQueue(int capacity) {
+        super(capacity);
+    }
+
+    protected void insert(Item item) {
+        queue.enqueue(item);
+    }
+
+    protected Item extract() {
+        return queue.dequeue();
+    }
+
+    protected int count() {
+        return queue.size();
+    }
+
+
+    /**
+     * Unit tests the <code>BoundedBlockingRandomizedQueue</code> data type
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws InterruptedException {
+        BoundedBlockingRandomizedQueue<Integer> queue
+                = new BoundedBlockingRandomizedQueue<Integer>(3);
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = 0; i < 5; i++) batch.add(i);
+        StdOut.println(queue.offerAll(batch) + " " + queue.size() + " " + queue.offer(7));
+
+        // a producer blocks on the full queue until the main thread takes
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(3);
+                queue.put(4);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(20);
+        int sum = 0;
+        for (int i = 0; i < 5; i++) sum += queue.take();
+        producer.join();
+        StdOut.println(sum + " " + queue.isEmpty() + " " + (queue.putWaitNanos() > 0));
+        StdOut.println(queue.poll(10, TimeUnit.MILLISECONDS) + " " + (queue.takeWaitNanos() > 0));
+    }
+
+}
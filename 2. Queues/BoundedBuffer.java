@@ -0,0 +1,480 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe wrapper around a single-threaded queue. Producers block
+ * (or time out) while it is full and consumers while it is empty, which gives
+ * a pipeline backpressure. One lock guards the queue, with a condition for
+ * each side; <code>drainTo</code> and <code>offerAll</code> move many items
+ * per lock acquisition. Subclasses decide which item <code>take</code>
+ * returns; one with more than one end, like a deque, passes its own insert or
+ * extract operation to the protected variants of the blocking methods.
+ */
+public abstract class BoundedBuffer<Item> {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * putWait: total nanoseconds producers spent blocked on a full buffer
+     * takeWait: total nanoseconds consumers spent blocked on an empty buffer
+     * both guarded by lock
+     */
+    private long putWait;
+    private long takeWait;
+
+    /**
+     * Constructor for <code>BoundedBuffer</code>
+     *
+     * @param capacity the maximum number of items
+     */
+    protected BoundedBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds an item to the underlying queue; called with the lock held
+     *
+     * @param item the item to add
+     */
+    protected abstract void insert(Item item);
+
+    /**
+     * Removes an item from the non-empty underlying queue; called with the
+     * lock held
+     *
+     * @return the item removed
+     */
+    protected abstract Item extract();
+
+    /**
+     * Returns the number of items on the underlying queue; called with the
+     * lock held
+     *
+     * @return the number of items
+     */
+    protected abstract int count();
+
+
+    /**
+     * Returns the maximum number of items
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the number of items currently buffered
+     *
+     * @return the queue depth
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return count();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Returns true if no items are buffered
+     *
+     * @return true - if the buffer is empty
+     * false - otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+
+    /**
+     * Returns the total time producers have spent blocked on a full buffer
+     *
+     * @return the wait time, in nanoseconds
+     */
+    public long putWaitNanos() {
+        lock.lock();
+        try {
+            return putWait;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Returns the total time consumers have spent blocked on an empty buffer
+     *
+     * @return the wait time, in nanoseconds
+     */
+    public long takeWaitNanos() {
+        lock.lock();
+        try {
+            return takeWait;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Checks that an item is not null
+     */
+    private static void check(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item to be added is null");
+        }
+    }
+
+    /**
+     * Adds the item and wakes a consumer; called with the lock held and
+     * room in the buffer
+     */
+    private void push(Item item, Consumer<? super Item> insert) {
+        insert.accept(item);
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes an item and wakes a producer; called with the lock held and
+     * the buffer non-empty
+     */
+    private Item pop(Supplier<? extends Item> extract) {
+        Item item = extract.get();
+        notFull.signal();
+        return item;
+    }
+
+
+    /**
+     * Adds the item, waiting while the buffer is full
+     *
+     * @param item the item to add
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(Item item) throws InterruptedException {
+        put(item, this::insert);
+    }
+
+    /**
+     * Adds the item with the given insert operation, waiting while the buffer is full
+     *
+     * @param item   the item to add
+     * @param insert adds the item to the underlying queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected final void put(Item item, Consumer<? super Item> insert) throws InterruptedException {
+        check(item);
+        lock.lockInterruptibly();
+        try {
+            if (count() == capacity) {
+                long start = System.nanoTime();
+                try {
+                    while (count() == capacity) notFull.await();
+                }
+                finally {
+                    putWait += System.nanoTime() - start;
+                }
+            }
+            push(item, insert);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the item if there is room
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if the buffer is full
+     */
+    public boolean offer(Item item) {
+        return offer(item, this::insert);
+    }
+
+    /**
+     * Adds the item with the given insert operation if there is room
+     *
+     * @param item   the item to add
+     * @param insert adds the item to the underlying queue
+     * @return true if the item was added, false if the buffer is full
+     */
+    protected final boolean offer(Item item, Consumer<? super Item> insert) {
+        check(item);
+        lock.lock();
+        try {
+            if (count() == capacity) return false;
+            push(item, insert);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the item, waiting up to the given time for room
+     *
+     * @param item    the item to add
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return true if the item was added, false if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(item, this::insert, timeout, unit);
+    }
+
+    /**
+     * Adds the item with the given insert operation, waiting up to the given time for room
+     *
+     * @param item    the item to add
+     * @param insert  adds the item to the underlying queue
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return true if the item was added, false if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected final boolean offer(Item item, Consumer<? super Item> insert, long timeout,
+                                  TimeUnit unit)
+            throws InterruptedException {
+        check(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (count() == capacity) {
+                long start = System.nanoTime();
+                try {
+                    while (count() == capacity) {
+                        if (nanos <= 0) return false;
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                }
+                finally {
+                    putWait += System.nanoTime() - start;
+                }
+            }
+            push(item, insert);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds as many of the items, in iteration order, as there is room for,
+     * under a single lock acquisition
+     *
+     * @param items the items to add
+     * @return the number of items added
+     */
+    public int offerAll(Collection<? extends Item> items) {
+        for (Item item : items) check(item);
+        lock.lock();
+        try {
+            int added = 0;
+            for (Item item : items) {
+                if (count() == capacity) break;
+                insert(item);
+                added++;
+            }
+            if (added == 1) notEmpty.signal();
+            else if (added > 1) notEmpty.signalAll();
+            return added;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes and returns an item, waiting while the buffer is empty
+     *
+     * @return the item removed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item take() throws InterruptedException {
+        return take(this::extract);
+    }
+
+    /**
+     * Removes and returns an item with the given extract operation, waiting while the
+     * buffer is empty
+     *
+     * @param extract removes an item from the underlying queue
+     * @return the item removed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected final Item take(Supplier<? extends Item> extract) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (count() == 0) {
+                long start = System.nanoTime();
+                try {
+                    while (count() == 0) notEmpty.await();
+                }
+                finally {
+                    takeWait += System.nanoTime() - start;
+                }
+            }
+            return pop(extract);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes and returns an item, or null if the buffer is empty
+     *
+     * @return the item removed, or null
+     */
+    public Item poll() {
+        return poll(this::extract);
+    }
+
+    /**
+     * Removes and returns an item with the given extract operation, or null if the buffer
+     * is empty
+     *
+     * @param extract removes an item from the underlying queue
+     * @return the item removed, or null
+     */
+    protected final Item poll(Supplier<? extends Item> extract) {
+        lock.lock();
+        try {
+            if (count() == 0) return null;
+            return pop(extract);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes and returns an item, waiting up to the given time for one
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return the item removed, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(this::extract, timeout, unit);
+    }
+
+    /**
+     * Removes and returns an item with the given extract operation, waiting up to the given
+     * time for one
+     *
+     * @param extract removes an item from the underlying queue
+     * @param timeout how long to wait
+     * @param unit    the unit of <code>timeout</code>
+     * @return the item removed, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected final Item poll(Supplier<? extends Item> extract, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (count() == 0) {
+                long start = System.nanoTime();
+                try {
+                    while (count() == 0) {
+                        if (nanos <= 0) return null;
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                }
+                finally {
+                    takeWait += System.nanoTime() - start;
+                }
+            }
+            return pop(extract);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes and returns an item
+     *
+     * @return the item removed
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public Item remove() {
+        Item item = poll();
+        if (item == null) {
+            throw new NoSuchElementException("Can't remove as the buffer is empty");
+        }
+        return item;
+    }
+
+
+    /**
+     * Moves up to <code>max</code> items into <code>out</code> under a single
+     * lock acquisition, without waiting
+     *
+     * @param out the collection to add the items to
+     * @param max the maximum number of items to move
+     * @return the number of items moved
+     */
+    public int drainTo(Collection<? super Item> out, int max) {
+        if (out == null) {
+            throw new IllegalArgumentException("collection is null");
+        }
+        lock.lock();
+        try {
+            int n = Math.min(max, count());
+            for (int i = 0; i < n; i++) {
+                out.add(extract());
+            }
+            if (n == 1) notFull.signal();
+            else if (n > 1) notFull.signalAll();
+            return Math.max(n, 0);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+}
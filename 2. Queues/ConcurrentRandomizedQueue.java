@@ -0,0 +1,316 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe <code>RandomizedQueue</code> split into shards, each with its
+ * own lock and resizing array. A thread enqueues into its home shard, so
+ * producers rarely contend. <code>dequeue</code> and <code>sample</code> pick
+ * a shard with probability proportional to its size and then an index within
+ * it, using a per-thread generator, so every item is equally likely when the
+ * queue is not being modified concurrently.
+ */
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+
+    /**
+     * Class for a shard: a resizing array guarded by its own monitor
+     * s: the items
+     * size: number of items, volatile so that shards can be weighted without
+     * locking
+     */
+    private static class Shard<Item> {
+        private Item[] s = (Item[]) new Object[2];
+        private volatile int size;
+
+        private void resize(int capacity) {
+            Item[] copy = (Item[]) new Object[capacity];
+            for (int i = 0; i < size; i++) {
+                copy[i] = s[i];
+            }
+            s = copy;
+        }
+    }
+
+    private final Shard<Item>[] shards;
+    private final int mask;
+
+    /**
+     * Constructor for <code>ConcurrentRandomizedQueue</code> with two shards
+     * per available processor
+     */
+    public ConcurrentRandomizedQueue() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for <code>ConcurrentRandomizedQueue</code>
+     *
+     * @param shards the number of shards, rounded up to a power of two
+     */
+    public ConcurrentRandomizedQueue(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("number of shards must be positive");
+        }
+        int count = Integer.highestOneBit(shards);
+        if (count < shards) count *= 2;
+        this.shards = (Shard<Item>[]) new Shard<?>[count];
+        for (int i = 0; i < count; i++) {
+            this.shards[i] = new Shard<Item>();
+        }
+        mask = count - 1;
+    }
+
+
+    /**
+     * Returns true if this <code>ConcurrentRandomizedQueue</code> appears empty
+     *
+     * @return true - if this <code>ConcurrentRandomizedQueue</code> is empty
+     * false - otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+
+    /**
+     * Returns the number of items on this <code>ConcurrentRandomizedQueue</code>,
+     * which may be stale under concurrent updates
+     *
+     * @return the number of items on this <code>ConcurrentRandomizedQueue</code>
+     */
+    public int size() {
+        int total = 0;
+        for (Shard<Item> shard : shards) {
+            total += shard.size;
+        }
+        return total;
+    }
+
+
+    /**
+     * Returns the home shard of the calling thread
+     *
+     * @return the home shard of the calling thread
+     */
+    private Shard<Item> home() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return shards[h & mask];
+    }
+
+
+    /**
+     * Adds the <code>item</code> to the home shard of the calling thread
+     *
+     * @param item the item to add
+     */
+    public void enqueue(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item to be enqueued is null");
+        }
+        Shard<Item> shard = home();
+        synchronized (shard) {
+            if (shard.size == shard.s.length) shard.resize(2 * shard.s.length);
+            shard.s[shard.size] = item;
+            shard.size = shard.size + 1;
+        }
+    }
+
+
+    /**
+     * Picks a shard with probability proportional to its size
+     *
+     * @param random the generator of the calling thread
+     * @return a shard, or null if every shard is empty
+     */
+    private Shard<Item> pick(ThreadLocalRandom random) {
+        int total = size();
+        if (total == 0) return null;
+        int r = random.nextInt(total);
+        for (Shard<Item> shard : shards) {
+            r -= shard.size;
+            if (r < 0) return shard;
+        }
+        // sizes changed while walking; fall back to the first non-empty shard
+        for (Shard<Item> shard : shards) {
+            if (shard.size > 0) return shard;
+        }
+        return null;
+    }
+
+
+    /**
+     * Removes and returns a random <code>item</code>
+     *
+     * @return a random <code>item</code> from the <code>ConcurrentRandomizedQueue</code>
+     */
+    public Item dequeue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<Item> shard = pick(random);
+            if (shard == null) {
+                throw new NoSuchElementException(
+                        "Cannot dequeue as the RandomizedQueue is empty");
+            }
+            synchronized (shard) {
+                int size = shard.size;
+                // emptied since it was picked; pick again
+                if (size == 0) continue;
+                int x = random.nextInt(size);
+                Item item = shard.s[x];
+                shard.s[x] = shard.s[size - 1];
+                shard.s[size - 1] = null;
+                shard.size = size - 1;
+                if (size - 1 > 0 && size - 1 == shard.s.length / 4) shard.resize(shard.s.length / 2);
+                return item;
+            }
+        }
+    }
+
+
+    /**
+     * Returns a random <code>item</code> without removing it
+     *
+     * @return a random <code>item</code> from the <code>ConcurrentRandomizedQueue</code>
+     */
+    public Item sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<Item> shard = pick(random);
+            if (shard == null) {
+                throw new NoSuchElementException(
+                        "Cannot sample as the RandomizedQueue is empty");
+            }
+            synchronized (shard) {
+                int size = shard.size;
+                if (size == 0) continue;
+                return shard.s[random.nextInt(size)];
+            }
+        }
+    }
+
+
+    /**
+     * Returns an iterator over a snapshot of the items in random order; each
+     * shard is copied under its own lock, so the snapshot is weakly consistent
+     *
+     * @return an iterator over items in random order
+     */
+    public Iterator<Item> iterator() {
+        Object[] snapshot = new Object[Math.max(size(), 1)];
+        int n = 0;
+        for (Shard<Item> shard : shards) {
+            synchronized (shard) {
+                if (n + shard.size > snapshot.length) {
+                    Object[] copy = new Object[2 * (n + shard.size)];
+                    System.arraycopy(snapshot, 0, copy, 0, n);
+                    snapshot = copy;
+                }
+                System.arraycopy(shard.s, 0, snapshot, n, shard.size);
+                n += shard.size;
+            }
+        }
+        return new SnapshotIterator(snapshot, n);
+    }
+
+    /**
+     * Class required for an iterator
+     * doesn't implement remove() since its optional; draws the next item with
+     * one step of a Fisher-Yates shuffle over the private snapshot
+     */
+    private class SnapshotIterator implements Iterator<Item> {
+        private final Object[] items;
+        private int i;
+
+        SnapshotIterator(Object[] items, int n) {
+            this.items = items;
+            this.i = n;
+        }
+
+        public boolean hasNext() {
+            return (i > 0);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not implemented in iterator");
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int r = ThreadLocalRandom.current().nextInt(i);
+            Object item = items[r];
+            items[r] = items[--i];
+            items[i] = item;
+            return (Item) item;
+        }
+    }
+
+    /**
+     * Unit tests the <code>ConcurrentRandomizedQueue</code> data type
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>(4);
+        int threads = 4;
+        int perThread = 100000;
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.enqueue(base + i);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) producer.join();
+        StdOut.println(queue.size());
+
+        AtomicLong sum = new AtomicLong();
+        Thread[] consumers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            consumers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    sum.addAndGet(queue.dequeue());
+                }
+            });
+            consumers[t].start();
+        }
+        for (Thread consumer : consumers) consumer.join();
+        long n = (long) threads * perThread;
+        StdOut.println(queue.isEmpty() + " " + (sum.get() == n * (n - 1) / 2));
+
+        // uneven shards: 1 item from one thread, 9 from another; each of the
+        // 10 items should be sampled about 10% of the time
+        Thread one = new Thread(() -> queue.enqueue(0));
+        one.start();
+        one.join();
+        for (int i = 1; i < 10; i++) {
+            queue.enqueue(i);
+        }
+        int[] counts = new int[10];
+        for (int i = 0; i < 100000; i++) {
+            counts[queue.sample()]++;
+        }
+        for (int i = 0; i < 10; i++) {
+            StdOut.print(counts[i] + " ");
+        }
+        StdOut.println();
+    }
+
+}
@@ -13,14 +13,34 @@ import edu.princeton.cs.algs4.StdOut;
 
 import java.util.Iterator;
 
+/**
+ * Deque as an unrolled linked list: each node holds a chunk of up to
+ * <code>CHUNK</code> items, so adds and removes allocate only when a chunk
+ * fills, and iteration walks contiguous arrays. Emptied chunks go to a small
+ * free list and are reused before new ones are allocated.
+ */
 public class Deque<Item> implements Iterable<Item> {
 
+    private static final int CHUNK = 64;
+    private static final int POOL_LIMIT = 4;
+
+    /**
+     * first, last: the end nodes; first == last when at most one chunk is
+     * in use, and the deque always keeps one node
+     * firstIndex: index of the front item in first.items
+     * lastIndex: index one past the back item in last.items
+     * pool: free list of empty nodes, linked through next
+     */
     private Node first;
     private Node last;
+    private int firstIndex;
+    private int lastIndex;
     private int size;
+    private Node pool;
+    private int pooled;
 
     private class Node {
-        Item item;
+        final Item[] items = (Item[]) new Object[CHUNK];
         Node prev;
         Node next;
     }
@@ -31,8 +51,11 @@ public class Deque<Item> implements Iterable<Item> {
      * Constructor for Deque
      */
     public Deque() {
-        first = null;
-        last = null;
+        first = new Node();
+        last = first;
+        // start in the middle so either end can grow without a new chunk
+        firstIndex = CHUNK / 2;
+        lastIndex = CHUNK / 2;
         size = 0;
     }
 
@@ -58,6 +81,46 @@ public class Deque<Item> implements Iterable<Item> {
     }
 
 
+    /**
+     * Returns an empty node, from the free list if possible
+     *
+     * @return an empty node
+     */
+    private Node obtain() {
+        if (pool == null) return new Node();
+        Node node = pool;
+        pool = node.next;
+        node.next = null;
+        pooled--;
+        return node;
+    }
+
+    /**
+     * Unlinks an empty node and keeps it for reuse if the free list has room
+     *
+     * @param node the node, whose items are all null
+     */
+    private void release(Node node) {
+        node.prev = null;
+        node.next = null;
+        if (pooled < POOL_LIMIT) {
+            node.next = pool;
+            pool = node;
+            pooled++;
+        }
+    }
+
+    /**
+     * Recentres the single remaining node once the deque is empty
+     */
+    private void recentre() {
+        if (size == 0) {
+            firstIndex = CHUNK / 2;
+            lastIndex = CHUNK / 2;
+        }
+    }
+
+
     /**
      * Adds the item to the front
      *
@@ -68,21 +131,14 @@ public class Deque<Item> implements Iterable<Item> {
             throw new IllegalArgumentException("item to be added is null");
         }
         else {
-            if (size == 0) {
-                first = new Node();
-                first.item = item;
-                first.next = null;
-                first.prev = null;
-                last = first;
-            }
-            else {
-                Node oldfirst = first;
-                first = new Node();
-                first.item = item;
-                first.next = oldfirst;
-                first.prev = oldfirst.prev;
-                oldfirst.prev = first;
+            if (firstIndex == 0) {
+                Node node = obtain();
+                node.next = first;
+                first.prev = node;
+                first = node;
+                firstIndex = CHUNK;
             }
+            first.items[--firstIndex] = item;
             size++;
         }
     }
@@ -98,18 +154,15 @@ public class Deque<Item> implements Iterable<Item> {
             throw new IllegalArgumentException("item to be added is null");
         }
         else {
-            if (size == 0) {
-                addFirst(item);
-            }
-            else {
-                Node oldlast = last;
-                last = new Node();
-                oldlast.next = last;
-                last.prev = oldlast;
-                last.item = item;
-                last.next = null;
-                size++;
+            if (lastIndex == CHUNK) {
+                Node node = obtain();
+                node.prev = last;
+                last.next = node;
+                last = node;
+                lastIndex = 0;
             }
+            last.items[lastIndex++] = item;
+            size++;
         }
     }
 
@@ -124,16 +177,17 @@ public class Deque<Item> implements Iterable<Item> {
             throw new java.util.NoSuchElementException("Can't remove as the Deque is empty");
         }
         else {
-            Item item = first.item;
-            if (size == 1) {
-                first = null;
-                last = null;
-            }
-            else {
+            Item item = first.items[firstIndex];
+            first.items[firstIndex++] = null;
+            size--;
+            if (firstIndex == CHUNK && first != last) {
+                Node old = first;
                 first = first.next;
                 first.prev = null;
+                firstIndex = 0;
+                release(old);
             }
-            size--;
+            recentre();
             return item;
         }
 
@@ -150,16 +204,17 @@ public class Deque<Item> implements Iterable<Item> {
             throw new java.util.NoSuchElementException("Can't remove as the Deque is empty");
         }
         else {
-            Item item = last.item;
-            if (size == 1) {
-                first = null;
-                last = null;
-            }
-            else {
+            Item item = last.items[--lastIndex];
+            last.items[lastIndex] = null;
+            size--;
+            if (lastIndex == 0 && first != last) {
+                Node old = last;
                 last = last.prev;
                 last.next = null;
+                lastIndex = CHUNK;
+                release(old);
             }
-            size--;
+            recentre();
             return item;
         }
     }
@@ -180,9 +235,11 @@ public class Deque<Item> implements Iterable<Item> {
      */
     private class ListIterator implements Iterator<Item> {
         private Node current = first;
+        private int index = firstIndex;
+        private int remaining = size;
 
         public boolean hasNext() {
-            return (current != null);
+            return (remaining > 0);
         }
 
         public void remove() {
@@ -190,9 +247,13 @@ public class Deque<Item> implements Iterable<Item> {
         }
 
         public Item next() {
-            Item item = current.item;
-            current = current.next;
-            return item;
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            if (index == CHUNK) {
+                current = current.next;
+                index = 0;
+            }
+            remaining--;
+            return current.items[index++];
         }
     }
 
@@ -11,29 +11,182 @@
 
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 /**
- * Testing of RandomizedQueue from an input file
+ * Testing of RandomizedQueue from an input file.
+ * <p>
+ * <code>Permutation k</code> reads every string into a
+ * <code>RandomizedQueue</code> and prints k of them.
+ * <code>Permutation k reservoir</code> prints a uniformly random k-subset, in
+ * random order, in one pass that keeps only k strings in memory.
  */
 public class Permutation {
-    public static void main(String[] args) {
-        int k = Integer.parseInt(args[0]);
-        RandomizedQueue<String> queue = new RandomizedQueue<String>();
-        try {
+
+    /**
+     * Reads whitespace-separated tokens straight from a byte buffer; skipped
+     * tokens are never turned into <code>Strings</code>
+     */
+    private static class TokenReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int pos = 0;
+        private int limit = 0;
+        private byte[] scratch = new byte[64];
+
+        TokenReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Refills the buffer
+         *
+         * @return false at end of input
+         */
+        private boolean fill() {
+            try {
+                limit = in.read(buffer, 0, buffer.length);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos = 0;
+            return limit > 0;
+        }
+
+        /**
+         * Moves to the first byte of the next token
+         *
+         * @return false at end of input
+         */
+        private boolean skipWhitespace() {
             while (true) {
-                queue.enqueue(StdIn.readString());
+                while (pos < limit) {
+                    if ((buffer[pos] & 0xff) > ' ') return true;
+                    pos++;
+                }
+                if (!fill()) return false;
             }
         }
-        catch (java.util.NoSuchElementException e) {
-            int i = 0;
-            for (String a : queue) {
-                if (i < k) {
-                    StdOut.println(a);
-                    i++;
+
+        /**
+         * Skips <code>count</code> tokens
+         *
+         * @param count the number of tokens to skip
+         * @return false if the input ended first
+         */
+        boolean skip(long count) {
+            for (long i = 0; i < count; i++) {
+                if (!skipWhitespace()) return false;
+                while (true) {
+                    while (pos < limit && (buffer[pos] & 0xff) > ' ') pos++;
+                    if (pos < limit || !fill()) break;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the next token, or null at end of input
+         *
+         * @return the next token
+         */
+        String next() {
+            if (!skipWhitespace()) return null;
+            int start = pos;
+            while (pos < limit && (buffer[pos] & 0xff) > ' ') pos++;
+            if (pos < limit) return new String(buffer, start, pos - start, StandardCharsets.UTF_8);
+            // the token runs past the end of the buffer
+            int length = 0;
+            while (true) {
+                int n = pos - start;
+                if (length + n > scratch.length) {
+                    byte[] copy = new byte[Math.max(2 * scratch.length, length + n)];
+                    System.arraycopy(scratch, 0, copy, 0, length);
+                    scratch = copy;
                 }
-                else break;
+                System.arraycopy(buffer, start, scratch, length, n);
+                length += n;
+                if (pos < limit || !fill()) break;
+                start = pos;
+                while (pos < limit && (buffer[pos] & 0xff) > ' ') pos++;
             }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
         }
+    }
+
+    /**
+     * Returns a uniform random number in (0, 1]
+     */
+    private static double positiveUniform() {
+        return 1.0 - StdRandom.uniform();
+    }
+
+    /**
+     * Selects a uniformly random k-subset of the tokens on standard input with
+     * Li's Algorithm L: after the reservoir is full, the number of tokens to
+     * skip before the next replacement is drawn directly, so the expected
+     * number of tokens decoded is O(k (1 + log(n / k)))
+     *
+     * @param k the number of tokens to keep, not negative
+     * @return the selected tokens, fewer than k if the input is shorter
+     */
+    private static String[] reservoir(int k) {
+        TokenReader reader = new TokenReader(System.in);
+        String[] kept = new String[k];
+        int n = 0;
+        while (n < k) {
+            String token = reader.next();
+            if (token == null) break;
+            kept[n++] = token;
+        }
+        if (n < k) {
+            String[] copy = new String[n];
+            System.arraycopy(kept, 0, copy, 0, n);
+            return copy;
+        }
+        if (k == 0) return kept;
+        double w = Math.exp(Math.log(positiveUniform()) / k);
+        while (true) {
+            long skip = (long) Math.floor(Math.log(positiveUniform()) / Math.log1p(-w));
+            if (!reader.skip(skip)) break;
+            String token = reader.next();
+            if (token == null) break;
+            kept[StdRandom.uniform(k)] = token;
+            w *= Math.exp(Math.log(positiveUniform()) / k);
+        }
+        return kept;
+    }
 
+    public static void main(String[] args) {
+        int k = Integer.parseInt(args[0]);
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        if (args.length > 1 && args[1].equals("reservoir")) {
+            String[] kept = reservoir(k);
+            StdRandom.shuffle(kept);
+            for (String a : kept) {
+                StdOut.println(a);
+            }
+            return;
+        }
+        RandomizedQueue<String> queue = new RandomizedQueue<String>();
+        while (!StdIn.isEmpty()) {
+            queue.enqueue(StdIn.readString());
+        }
+        int i = 0;
+        for (String a : queue) {
+            if (i < k) {
+                StdOut.println(a);
+                i++;
+            }
+            else break;
+        }
     }
 }
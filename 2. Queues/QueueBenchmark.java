@@ -0,0 +1,275 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.PrimitiveIterator;
+import java.util.function.Supplier;
+
+/**
+ * Timing client for the queue data types in this directory
+ */
+public class QueueBenchmark {
+
+    /**
+     * Returns the heap in use after a garbage collection, in bytes
+     *
+     * @return the heap in use, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * A queue type under the fill, iterate and drain workload; each method
+     * runs a whole phase, so the calls inside its loop stay specific to one
+     * type
+     */
+    private interface Workload {
+        /**
+         * Adds 0 to n - 1 at the back
+         */
+        void fill(int n);
+
+        /**
+         * Returns the sum of the items, by iteration
+         */
+        long iterate();
+
+        /**
+         * Removes every item from the front and returns their sum
+         */
+        long drain();
+    }
+
+    /**
+     * Times filling a new queue with n items at the back, iterating over it
+     * and draining it from the front, and prints the results
+     *
+     * @param name   the queue type
+     * @param n      the number of items
+     * @param create makes the workload over a new, empty queue
+     */
+    private static void run(String name, int n, Supplier<Workload> create) {
+        long heap = usedHeap();
+        Stopwatch time = new Stopwatch();
+        Workload workload = create.get();
+        workload.fill(n);
+        double add = time.elapsedTime();
+        long bytes = usedHeap() - heap;
+        time = new Stopwatch();
+        long sum = workload.iterate();
+        double iterate = time.elapsedTime();
+        time = new Stopwatch();
+        sum -= workload.drain();
+        report(name, n, add, iterate, time.elapsedTime(), bytes, sum);
+    }
+
+    /**
+     * Returns the workload on a new <code>Deque</code>
+     */
+    private static Workload linkedDeque() {
+        Deque<Integer> deque = new Deque<Integer>();
+        return new Workload() {
+            public void fill(int n) {
+                for (int i = 0; i < n; i++) {
+                    deque.addLast(i);
+                }
+            }
+
+            public long iterate() {
+                long sum = 0;
+                for (int x : deque) {
+                    sum += x;
+                }
+                return sum;
+            }
+
+            public long drain() {
+                long sum = 0;
+                while (!deque.isEmpty()) {
+                    sum += deque.removeFirst();
+                }
+                return sum;
+            }
+        };
+    }
+
+    /**
+     * Returns the workload on a new <code>ResizingArrayDeque</code>
+     */
+    private static Workload arrayDeque() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<Integer>();
+        return new Workload() {
+            public void fill(int n) {
+                for (int i = 0; i < n; i++) {
+                    deque.addLast(i);
+                }
+            }
+
+            public long iterate() {
+                long sum = 0;
+                for (int x : deque) {
+                    sum += x;
+                }
+                return sum;
+            }
+
+            public long drain() {
+                long sum = 0;
+                while (!deque.isEmpty()) {
+                    sum += deque.removeFirst();
+                }
+                return sum;
+            }
+        };
+    }
+
+    /**
+     * Returns the workload on a new <code>IntDeque</code>, with no boxing
+     */
+    private static Workload intDeque() {
+        IntDeque deque = new IntDeque();
+        return new Workload() {
+            public void fill(int n) {
+                for (int i = 0; i < n; i++) {
+                    deque.addLast(i);
+                }
+            }
+
+            public long iterate() {
+                long sum = 0;
+                PrimitiveIterator.OfInt it = deque.iterator();
+                while (it.hasNext()) {
+                    sum += it.nextInt();
+                }
+                return sum;
+            }
+
+            public long drain() {
+                long sum = 0;
+                while (!deque.isEmpty()) {
+                    sum += deque.removeFirst();
+                }
+                return sum;
+            }
+        };
+    }
+
+    /**
+     * Times m rounds of weighted dequeue followed by enqueue on a
+     * <code>WeightedRandomizedQueue</code> holding n items
+     *
+     * @param n the number of items
+     * @param m the number of rounds
+     * @return elapsed time in seconds
+     */
+    private static double weightedTree(int n, int m) {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>();
+        for (int i = 0; i < n; i++) {
+            queue.enqueue(i, 1.0 + i % 100);
+        }
+        Stopwatch time = new Stopwatch();
+        for (int i = 0; i < m; i++) {
+            int x = queue.dequeue();
+            queue.enqueue(x, 1.0 + x % 100);
+        }
+        return time.elapsedTime();
+    }
+
+    /**
+     * Times the same workload with a linear scan over the weights, the
+     * obvious extension of <code>RandomizedQueue</code>
+     *
+     * @param n the number of items
+     * @param m the number of rounds
+     * @return elapsed time in seconds
+     */
+    private static double weightedScan(int n, int m) {
+        int[] items = new int[n];
+        double[] weights = new double[n];
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            items[i] = i;
+            weights[i] = 1.0 + i % 100;
+            total += weights[i];
+        }
+        Stopwatch time = new Stopwatch();
+        for (int i = 0; i < m; i++) {
+            double r = StdRandom.uniform() * total;
+            int j = 0;
+            while (j < n - 1 && r >= weights[j]) {
+                r -= weights[j++];
+            }
+            // dequeue items[j] and enqueue it again at the back
+            int x = items[j];
+            double weight = weights[j];
+            items[j] = items[n - 1];
+            weights[j] = weights[n - 1];
+            items[n - 1] = x;
+            weights[n - 1] = weight;
+        }
+        return time.elapsedTime();
+    }
+
+    /**
+     * Prints the cost of a weighted dequeue plus enqueue, Fenwick tree against
+     * linear scan, for growing n
+     *
+     * @param m the number of rounds per size
+     */
+    private static void weighted(int m) {
+        weightedTree(1000, m);
+        weightedScan(1000, m);
+        StdOut.printf("%-20s %12s %12s%n", "weighted, n", "tree (ns)", "scan (ns)");
+        for (int n = 1000; n <= 1000000; n *= 10) {
+            double tree = weightedTree(n, m);
+            double scan = weightedScan(n, m);
+            StdOut.printf("%-20d %12.1f %12.1f%n", n, tree / m * 1e9, scan / m * 1e9);
+        }
+    }
+
+    /**
+     * Prints one row of results
+     */
+    private static void report(String name, int n, double add, double iterate, double remove,
+                               long bytes, long sum) {
+        if (sum != 0) StdOut.println("checksum mismatch in " + name);
+        StdOut.printf("%-20s %8.3f %8.3f %8.3f %10.1f%n", name, add, iterate, remove,
+                      (double) bytes / n);
+    }
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args optional number of items (default 10,000,000)
+     */
+    public static void main(String[] args) {
+        int n = 10000000;
+        if (args.length > 0) n = Integer.parseInt(args[0]);
+        // warm up
+        run("Deque", n / 10, QueueBenchmark::linkedDeque);
+        run("ResizingArrayDeque", n / 10, QueueBenchmark::arrayDeque);
+        run("IntDeque", n / 10, QueueBenchmark::intDeque);
+        StdOut.printf("%-20s %8s %8s %8s %10s%n", "n = " + n, "add (s)", "iter (s)",
+                      "remove (s)", "bytes/item");
+        run("Deque", n, QueueBenchmark::linkedDeque);
+        run("ResizingArrayDeque", n, QueueBenchmark::arrayDeque);
+        run("IntDeque", n, QueueBenchmark::intDeque);
+        weighted(20000);
+    }
+}
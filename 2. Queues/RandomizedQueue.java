@@ -16,6 +16,12 @@ import java.util.Iterator;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
 
+    /**
+     * queues larger than this are iterated with a Feistel permutation instead
+     * of an index array
+     */
+    private static final int FEISTEL_THRESHOLD = 4096;
+
     private Item[] s;
     private int size;
 
@@ -92,8 +98,9 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
                     "Cannot dequeue as the RandomizedQueue is empty");
         }
         else {
-            StdRandom.shuffle(s, 0, size);
-            Item item = s[size - 1];
+            int x = StdRandom.uniform(size);
+            Item item = s[x];
+            s[x] = s[size - 1];
             s[size - 1] = null;
             size--;
             if (size > 0 && size == s.length / 4) resize(s.length / 2);
@@ -120,24 +127,35 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
 
     /**
-     * Returns an independent iterator over items in random order
+     * Returns an independent iterator over items in random order. The order is
+     * drawn lazily, so taking the first k items costs O(k) (plus O(n) for small
+     * queues), and the backing array is never reordered, so iterators do not
+     * disturb each other.
      *
      * @return an independent iterator over items in random order
      */
     public Iterator<Item> iterator() {
-        StdRandom.shuffle(s, 0, size);
-        return new ReverseArrayIterator();
+        if (size <= FEISTEL_THRESHOLD) return new ShuffleIterator();
+        return new FeistelIterator();
     }
 
     /**
      * Class required for an iterator
-     * doesn't implement remove() since its optional
+     * doesn't implement remove() since its optional; draws the order with an
+     * incremental Fisher-Yates shuffle of an index array
      */
-    private class ReverseArrayIterator implements Iterator<Item> {
-        private int i = size;
+    private class ShuffleIterator implements Iterator<Item> {
+        private final int[] order = new int[size];
+        private int i = 0;
+
+        ShuffleIterator() {
+            for (int k = 0; k < order.length; k++) {
+                order[k] = k;
+            }
+        }
 
         public boolean hasNext() {
-            return (i > 0);
+            return (i < order.length);
         }
 
         public void remove() {
@@ -145,7 +163,76 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
 
         public Item next() {
-            return s[--i];
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            int r = i + StdRandom.uniform(order.length - i);
+            int index = order[r];
+            order[r] = order[i];
+            order[i++] = index;
+            return s[index];
+        }
+    }
+
+    /**
+     * Class required for an iterator
+     * doesn't implement remove() since its optional; visits the indices in the
+     * order of a keyed four-round Feistel permutation of [0, 4^h), 4^h >= n,
+     * skipping images outside [0, n), which takes O(1) setup and expected
+     * O(1) time per item
+     */
+    private class FeistelIterator implements Iterator<Item> {
+        private final int n = size;
+        private final int half;
+        private final int halfMask;
+        private final long[] keys = new long[4];
+        private long counter = 0;
+        private int i = 0;
+
+        FeistelIterator() {
+            int bits = 32 - Integer.numberOfLeadingZeros(n - 1);
+            half = (bits + 1) / 2;
+            halfMask = (1 << half) - 1;
+            for (int k = 0; k < keys.length; k++) {
+                keys[k] = ((long) StdRandom.uniform(Integer.MAX_VALUE) << 31)
+                        ^ StdRandom.uniform(Integer.MAX_VALUE);
+            }
+        }
+
+        /**
+         * Applies the keyed permutation of [0, 4^half) to x
+         */
+        private int permute(int x) {
+            int left = x >>> half;
+            int right = x & halfMask;
+            for (long key : keys) {
+                long z = (right + key) * 0x9E3779B97F4A7C15L;
+                z ^= z >>> 31;
+                z *= 0xBF58476D1CE4E5B9L;
+                int mixed = (int) (z >>> 32) & halfMask;
+                int next = left ^ mixed;
+                left = right;
+                right = next;
+            }
+            return (left << half) | right;
+        }
+
+        public boolean hasNext() {
+            return (i < n);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not implemented in iterator");
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            while (true) {
+                // images are unsigned: with half = 16 they can exceed 2^31
+                int index = permute((int) counter++);
+                if (Integer.compareUnsigned(index, n) < 0) {
+                    i++;
+                    return s[index];
+                }
+            }
         }
     }
 
@@ -175,6 +262,24 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         for (int a : queue) {
             StdOut.println(a);
         }
+
+        // large queue: the first items of a Feistel iterator, and a check that
+        // a full pass visits every item exactly once
+        RandomizedQueue<Integer> large = new RandomizedQueue<Integer>();
+        int m = 100000;
+        for (int i = 0; i < m; i++)
+            large.enqueue(i);
+        Iterator<Integer> it = large.iterator();
+        for (int i = 0; i < 5; i++)
+            StdOut.print(it.next() + " ");
+        StdOut.println();
+        boolean[] seen = new boolean[m];
+        int distinct = 0;
+        for (int a : large) {
+            if (!seen[a]) distinct++;
+            seen[a] = true;
+        }
+        StdOut.println(distinct == m);
     }
 
 }
@@ -0,0 +1,233 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class ResizingArrayDeque<Item> implements Iterable<Item> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * a: circular buffer whose length is a power of two
+     * head: index of the front item in a
+     * size: number of items on the deque
+     * modCount: number of structural modifications, for fail-fast iterators
+     */
+    private Item[] a;
+    private int head;
+    private int size;
+    private int modCount;
+
+    /**
+     * Constructor for <code>ResizingArrayDeque</code>
+     */
+    public ResizingArrayDeque() {
+        a = (Item[]) new Object[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+
+    /**
+     * Returns true if this <code>ResizingArrayDeque</code> is empty
+     *
+     * @return true - if this <code>ResizingArrayDeque</code> is empty
+     * false - otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Returns the number of items on this <code>ResizingArrayDeque</code>
+     *
+     * @return the number of items on this <code>ResizingArrayDeque</code>
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Moves the items to a new buffer of size <code>capacity</code>, with the
+     * front item at index 0
+     *
+     * @param capacity new capacity, a power of two
+     */
+    private void resize(int capacity) {
+        Item[] copy = (Item[]) new Object[capacity];
+        int mask = a.length - 1;
+        for (int i = 0; i < size; i++) {
+            copy[i] = a[(head + i) & mask];
+        }
+        a = copy;
+        head = 0;
+    }
+
+    /**
+     * Halves the buffer when it is a quarter full
+     */
+    private void shrink() {
+        if (a.length > MIN_CAPACITY && size == a.length / 4) resize(a.length / 2);
+    }
+
+
+    /**
+     * Adds the item to the front
+     *
+     * @param item - the item to add
+     */
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item to be added is null");
+        }
+        if (size == a.length) resize(2 * a.length);
+        head = (head - 1) & (a.length - 1);
+        a[head] = item;
+        size++;
+        modCount++;
+    }
+
+
+    /**
+     * Adds the item to the back
+     *
+     * @param item - the item to add
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item to be added is null");
+        }
+        if (size == a.length) resize(2 * a.length);
+        a[(head + size) & (a.length - 1)] = item;
+        size++;
+        modCount++;
+    }
+
+
+    /**
+     * Removes and returns the item from the front
+     *
+     * @return the item on this <code>ResizingArrayDeque</code> from the front
+     */
+    public Item removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Can't remove as the Deque is empty");
+        }
+        Item item = a[head];
+        a[head] = null;
+        head = (head + 1) & (a.length - 1);
+        size--;
+        modCount++;
+        shrink();
+        return item;
+    }
+
+
+    /**
+     * Removes and returns the item from the back
+     *
+     * @return the item on this <code>ResizingArrayDeque</code> from the back
+     */
+    public Item removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Can't remove as the Deque is empty");
+        }
+        int last = (head + size - 1) & (a.length - 1);
+        Item item = a[last];
+        a[last] = null;
+        size--;
+        modCount++;
+        shrink();
+        return item;
+    }
+
+
+    /**
+     * Returns an iterator over items in order from front to back
+     *
+     * @return an iterator over items in order from front to back
+     */
+    public Iterator<Item> iterator() {
+        return new ArrayIterator();
+    }
+
+    /**
+     * Class required for an iterator
+     * doesn't implement remove() since its optional; fails fast if the deque
+     * is modified while iterating
+     */
+    private class ArrayIterator implements Iterator<Item> {
+        private int i = 0;
+        private final int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return (i < size);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not implemented in iterator");
+        }
+
+        public Item next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            return a[(head + i++) & (a.length - 1)];
+        }
+    }
+
+
+    /**
+     * Unit tests the <code>ResizingArrayDeque</code> data type
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        ResizingArrayDeque<Integer> queue = new ResizingArrayDeque<Integer>();
+        queue.addFirst(1);
+        StdOut.println(queue.size());
+        queue.removeLast();
+        StdOut.println(queue.size());
+        queue.addLast(5);
+        queue.removeFirst();
+        StdOut.println(queue.size());
+        queue.addFirst(2);
+        queue.addFirst(3);
+        StdOut.println(queue.size());
+        queue.addLast(4);
+        for (int a : queue) {
+            StdOut.println(a);
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.addFirst(-i);
+        }
+        while (queue.size() > 3) {
+            queue.removeFirst();
+        }
+        for (int a : queue) {
+            StdOut.println(a);
+        }
+        try {
+            for (int a : queue) {
+                queue.addLast(a);
+            }
+        }
+        catch (ConcurrentModificationException e) {
+            StdOut.println("fail-fast iterator");
+        }
+    }
+
+}
@@ -0,0 +1,335 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <code>RandomizedQueue</code> whose items are drawn with probability
+ * proportional to a positive weight. The weights are kept in a Fenwick tree
+ * over the array slots, so <code>sample</code> takes O(log n) and
+ * <code>enqueue</code> and <code>dequeue</code> O(log^2 n); <code>dequeue</code>
+ * moves the last item into the freed slot, as <code>RandomizedQueue</code>
+ * does. Tree nodes are recomputed from the weights rather than adjusted by
+ * deltas, so removing a heavy item cannot cancel out light ones.
+ */
+public class WeightedRandomizedQueue<Item> implements Iterable<Item> {
+
+    /**
+     * s: the items, in slots [0, size)
+     * w: the weight of each slot, 0 for empty slots
+     * tree: Fenwick tree over w, 1-based; tree[i] is the sum of w over
+     * (i - lowbit(i), i]
+     * size: number of items
+     * modCount: number of structural modifications, for fail-fast iterators
+     */
+    private Item[] s;
+    private double[] w;
+    private double[] tree;
+    private int size;
+    private int modCount;
+
+    /**
+     * Constructor for <code>WeightedRandomizedQueue</code>
+     */
+    public WeightedRandomizedQueue() {
+        s = (Item[]) new Object[2];
+        w = new double[2];
+        tree = new double[3];
+        size = 0;
+    }
+
+
+    /**
+     * Returns true if this <code>WeightedRandomizedQueue</code> is empty
+     *
+     * @return true - if this <code>WeightedRandomizedQueue</code> is empty
+     * false - otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Returns the number of items on this <code>WeightedRandomizedQueue</code>
+     *
+     * @return the number of items on this <code>WeightedRandomizedQueue</code>
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the sum of the weights of the items
+     *
+     * @return the sum of the weights of the items
+     */
+    public double totalWeight() {
+        return prefix(tree, size);
+    }
+
+
+    /**
+     * Resizes the <code>WeightedRandomizedQueue</code> to the size
+     * <code>capacity</code> and rebuilds the tree in O(capacity)
+     *
+     * @param capacity new size, a power of two
+     */
+    private void resize(int capacity) {
+        Item[] copy = (Item[]) new Object[capacity];
+        double[] weights = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            copy[i] = s[i];
+            weights[i] = w[i];
+        }
+        s = copy;
+        w = weights;
+        tree = build(w);
+    }
+
+    /**
+     * Builds the Fenwick tree over <code>weights</code> in linear time
+     */
+    private static double[] build(double[] weights) {
+        int n = weights.length;
+        double[] t = new double[n + 1];
+        for (int i = 1; i <= n; i++) {
+            t[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n) t[parent] += t[i];
+        }
+        return t;
+    }
+
+    /**
+     * Recomputes the nodes covering slot <code>i</code> after its weight in
+     * <code>weights</code> changed. Each node is the slot's own weight plus
+     * the nodes below it, so it is only ever a sum of current weights: adding
+     * and later subtracting a weight of 1e17 would round away a weight of 1
+     * sharing the node.
+     */
+    private static void update(double[] t, double[] weights, int i) {
+        for (int j = i + 1; j < t.length; j += j & -j) {
+            double sum = weights[j - 1];
+            for (int step = 1; step < (j & -j); step <<= 1) {
+                sum += t[j - step];
+            }
+            t[j] = sum;
+        }
+    }
+
+    /**
+     * Returns the sum of the weights of slots [0, i)
+     */
+    private static double prefix(double[] t, int i) {
+        double sum = 0.0;
+        for (int j = i; j > 0; j -= j & -j) {
+            sum += t[j];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the slot whose weight interval contains <code>r</code>, that is
+     * the smallest i with prefix(i + 1) > r, clamped to [0, n)
+     *
+     * @param t the tree, of length capacity + 1 with capacity a power of two
+     * @param r a number in [0, prefix(n))
+     * @param n the number of occupied slots
+     * @return the slot
+     */
+    private static int find(double[] t, double r, int n) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(t.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < t.length && t[next] <= r) {
+                pos = next;
+                r -= t[next];
+            }
+        }
+        // rounding can carry r past the last occupied slot
+        return Math.min(pos, n - 1);
+    }
+
+
+    /**
+     * Adds the <code>item</code> with the given weight
+     *
+     * @param item   the item to add
+     * @param weight the weight of the item, positive and finite
+     */
+    public void enqueue(Item item, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item to be enqueued is null");
+        }
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("weight must be positive and finite: " + weight);
+        }
+        if (size == s.length) resize(2 * s.length);
+        s[size] = item;
+        w[size] = weight;
+        update(tree, w, size);
+        size++;
+        modCount++;
+    }
+
+
+    /**
+     * Removes and returns a random <code>item</code>, chosen with probability
+     * proportional to its weight
+     *
+     * @return a random <code>item</code> from the <code>WeightedRandomizedQueue</code>
+     */
+    public Item dequeue() {
+        if (size == 0) {
+            throw new NoSuchElementException(
+                    "Cannot dequeue as the RandomizedQueue is empty");
+        }
+        int x = find(tree, StdRandom.uniform() * totalWeight(), size);
+        Item item = s[x];
+        int last = size - 1;
+        if (x != last) {
+            s[x] = s[last];
+            w[x] = w[last];
+            update(tree, w, x);
+        }
+        s[last] = null;
+        w[last] = 0.0;
+        update(tree, w, last);
+        size--;
+        modCount++;
+        if (size > 0 && size == s.length / 4) resize(s.length / 2);
+        return item;
+    }
+
+
+    /**
+     * Returns a random <code>item</code>, chosen with probability proportional
+     * to its weight, without removing it
+     *
+     * @return a random <code>item</code> from the <code>WeightedRandomizedQueue</code>
+     */
+    public Item sample() {
+        if (size == 0) {
+            throw new NoSuchElementException(
+                    "Cannot sample as the RandomizedQueue is empty");
+        }
+        return s[find(tree, StdRandom.uniform() * totalWeight(), size)];
+    }
+
+
+    /**
+     * Returns an independent iterator over the items in the order successive
+     * calls to <code>dequeue</code> would return them: weighted sampling
+     * without replacement, drawn lazily in O(log n) per item after an O(n)
+     * copy of the tree
+     *
+     * @return an independent iterator over items in weighted random order
+     */
+    public Iterator<Item> iterator() {
+        return new WeightedIterator();
+    }
+
+    /**
+     * Class required for an iterator
+     * doesn't implement remove() since its optional; zeroes the weight of each
+     * item it returns in a private copy of the tree, and fails fast if the
+     * queue is modified while iterating
+     */
+    private class WeightedIterator implements Iterator<Item> {
+        private final int n = size;
+        private final double[] t = tree.clone();
+        private final double[] left = w.clone();
+        private final int expectedModCount = modCount;
+        private int i = 0;
+
+        public boolean hasNext() {
+            return (i < n);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not implemented in iterator");
+        }
+
+        public Item next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            int x = find(t, StdRandom.uniform() * prefix(t, n), n);
+            // rounding can land on a slot already returned; fall back to a scan
+            if (left[x] == 0.0) {
+                x = 0;
+                while (left[x] == 0.0) x++;
+            }
+            left[x] = 0.0;
+            update(t, left, x);
+            i++;
+            return s[x];
+        }
+    }
+
+    /**
+     * Unit tests the <code>WeightedRandomizedQueue</code> data type
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>();
+        for (int i = 1; i <= 4; i++)
+            queue.enqueue(i, i);
+        StdOut.println(queue.size() + " " + queue.totalWeight());
+
+        // item i has weight i, so it should be sampled about i/10 of the time
+        int[] counts = new int[5];
+        for (int i = 0; i < 100000; i++)
+            counts[queue.sample()]++;
+        for (int i = 1; i <= 4; i++)
+            StdOut.print(counts[i] + " ");
+        StdOut.println();
+
+        for (int a : queue)
+            StdOut.print(a + " ");
+        StdOut.println();
+
+        // the heavier item should usually be dequeued first
+        int heavyFirst = 0;
+        for (int i = 0; i < 10000; i++) {
+            WeightedRandomizedQueue<String> pair = new WeightedRandomizedQueue<String>();
+            pair.enqueue("light", 1.0);
+            pair.enqueue("heavy", 9.0);
+            if (pair.dequeue().equals("heavy")) heavyFirst++;
+        }
+        StdOut.println(heavyFirst);
+
+        while (!queue.isEmpty())
+            StdOut.print(queue.dequeue() + " ");
+        StdOut.println(queue.totalWeight());
+
+        // removing a heavy item must leave the light ones intact: the heavy
+        // item comes out first, then expect a total of 3.0 and each survivor
+        // drawn about 10000 times
+        WeightedRandomizedQueue<Integer> mixed = new WeightedRandomizedQueue<Integer>();
+        mixed.enqueue(-1, 1e17);
+        for (int i = 0; i < 3; i++)
+            mixed.enqueue(i, 1.0);
+        StdOut.println(mixed.dequeue() + " " + mixed.totalWeight());
+        int[] draws = new int[3];
+        for (int i = 0; i < 30000; i++)
+            draws[mixed.sample()]++;
+        StdOut.println(draws[0] + " " + draws[1] + " " + draws[2]);
+    }
+
+}
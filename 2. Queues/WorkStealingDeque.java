@@ -0,0 +1,364 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free work-stealing deque (Chase and Lev, "Dynamic Circular
+ * Work-Stealing Deque", SPAA 2005). A single owner thread adds and removes
+ * items at the back with <code>addLast</code> and <code>removeLast</code>;
+ * any number of thief threads take items from the front with
+ * <code>removeFirst</code>. Only the last remaining item is contended, and
+ * then a single CAS on <code>top</code> decides who gets it.
+ */
+public class WorkStealingDeque<Item> implements Iterable<Item> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * array: circular buffer whose length is a power of two; replaced, never
+     * shrunk, by the owner when full
+     * top: index of the front item, only ever incremented
+     * bottom: index one past the back item, written only by the owner
+     * cleared: owner only; slots of the indices below it no longer hold
+     * stolen items
+     */
+    private volatile AtomicReferenceArray<Item> array;
+    private final AtomicLong top;
+    private volatile long bottom;
+    private long cleared;
+
+    /**
+     * Constructor for <code>WorkStealingDeque</code>
+     */
+    public WorkStealingDeque() {
+        array = new AtomicReferenceArray<Item>(MIN_CAPACITY);
+        top = new AtomicLong();
+        bottom = 0;
+    }
+
+
+    /**
+     * Returns true if this <code>WorkStealingDeque</code> appears empty; the
+     * answer may be stale by the time it is returned
+     *
+     * @return true - if this <code>WorkStealingDeque</code> is empty
+     * false - otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+
+    /**
+     * Returns an estimate of the number of items on this
+     * <code>WorkStealingDeque</code>
+     *
+     * @return the number of items on this <code>WorkStealingDeque</code>
+     */
+    public int size() {
+        long b = bottom;
+        long t = top.get();
+        return (int) Math.max(0, b - t);
+    }
+
+
+    /**
+     * Copies the items in [t, b) to a buffer of twice the size
+     *
+     * @param a the current buffer
+     * @param t the front index
+     * @param b the back index
+     * @return the new buffer
+     */
+    private AtomicReferenceArray<Item> grow(AtomicReferenceArray<Item> a, long t, long b) {
+        AtomicReferenceArray<Item> copy = new AtomicReferenceArray<Item>(2 * a.length());
+        int oldMask = a.length() - 1;
+        int newMask = copy.length() - 1;
+        for (long i = t; i < b; i++) {
+            copy.lazySet((int) i & newMask, a.get((int) i & oldMask));
+        }
+        cleared = Math.max(cleared, t);
+        return copy;
+    }
+
+
+    /**
+     * Clears the slots of items stolen since the last call; owner thread
+     * only. A thief cannot clear its own slot, as by then the owner may have
+     * reused it, but an index below <code>top</code> is never read again: a
+     * thief that read it fails its CAS.
+     *
+     * @param a the current buffer
+     * @param t the front index, as read by the owner
+     * @param b the back index; a slot already holding index i + length is
+     *          left alone
+     */
+    private void clearStolen(AtomicReferenceArray<Item> a, long t, long b) {
+        int mask = a.length() - 1;
+        for (long i = Math.max(cleared, b - a.length()); i < t; i++) {
+            a.lazySet((int) i & mask, null);
+        }
+        cleared = Math.max(cleared, t);
+    }
+
+
+    /**
+     * Adds the item to the back; owner thread only
+     *
+     * @param item - the item to add
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item to be added is null");
+        }
+        long b = bottom;
+        long t = top.get();
+        AtomicReferenceArray<Item> a = array;
+        if (b - t >= a.length() - 1) {
+            a = grow(a, t, b);
+            array = a;
+        }
+        else clearStolen(a, t, b);
+        a.lazySet((int) b & (a.length() - 1), item);
+        // the volatile write publishes the item to thieves
+        bottom = b + 1;
+    }
+
+
+    /**
+     * Removes and returns the item from the back, or null if empty; owner
+     * thread only
+     *
+     * @return the item on this <code>WorkStealingDeque</code> from the back
+     */
+    public Item pollLast() {
+        long b = bottom - 1;
+        AtomicReferenceArray<Item> a = array;
+        // claim the back slot before looking at top, so a thief either sees the
+        // claim or its CAS on top is seen here
+        bottom = b;
+        long t = top.get();
+        clearStolen(a, Math.min(t, b), b + 1);
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        int slot = (int) b & (a.length() - 1);
+        Item item = a.get(slot);
+        if (t == b) {
+            // last item: race the thieves for it; whoever wins, index b is now
+            // below top and no thief will read its slot again
+            if (!top.compareAndSet(t, t + 1)) item = null;
+            a.lazySet(slot, null);
+            cleared = b + 1;
+            bottom = b + 1;
+            return item;
+        }
+        a.lazySet(slot, null);
+        return item;
+    }
+
+
+    /**
+     * Removes and returns the item from the back; owner thread only
+     *
+     * @return the item on this <code>WorkStealingDeque</code> from the back
+     */
+    public Item removeLast() {
+        Item item = pollLast();
+        if (item == null) {
+            throw new NoSuchElementException("Can't remove as the Deque is empty");
+        }
+        return item;
+    }
+
+
+    /**
+     * Removes and returns the item from the front, or null if empty; any
+     * thread. Retries while losing races to other thieves.
+     *
+     * @return the item on this <code>WorkStealingDeque</code> from the front
+     */
+    public Item pollFirst() {
+        while (true) {
+            long t = top.get();
+            long b = bottom;
+            if (t >= b) return null;
+            AtomicReferenceArray<Item> a = array;
+            Item item = a.get((int) t & (a.length() - 1));
+            // top only grows, so a successful CAS means slot t was still ours;
+            // the owner clears the slot on its next operation
+            if (top.compareAndSet(t, t + 1)) return item;
+        }
+    }
+
+
+    /**
+     * Removes and returns the item from the front; any thread
+     *
+     * @return the item on this <code>WorkStealingDeque</code> from the front
+     */
+    public Item removeFirst() {
+        Item item = pollFirst();
+        if (item == null) {
+            throw new NoSuchElementException("Can't remove as the Deque is empty");
+        }
+        return item;
+    }
+
+
+    /**
+     * Returns a weakly consistent iterator over a snapshot of the items, in
+     * order from front to back; items taken while the snapshot is copied may
+     * or may not be included
+     *
+     * @return an iterator over items in order from front to back
+     */
+    public Iterator<Item> iterator() {
+        long t = top.get();
+        long b = bottom;
+        AtomicReferenceArray<Item> a = array;
+        List<Item> snapshot = new ArrayList<Item>((int) Math.max(0, b - t));
+        for (long i = t; i < b; i++) {
+            Item item = a.get((int) i & (a.length() - 1));
+            if (item != null) snapshot.add(item);
+        }
+        return new SnapshotIterator(snapshot);
+    }
+
+    /**
+     * Class required for an iterator
+     * doesn't implement remove() since its optional
+     */
+    private class SnapshotIterator implements Iterator<Item> {
+        private final List<Item> items;
+        private int i = 0;
+
+        SnapshotIterator(List<Item> items) {
+            this.items = items;
+        }
+
+        public boolean hasNext() {
+            return (i < items.size());
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not implemented in iterator");
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return items.get(i++);
+        }
+    }
+
+
+    /**
+     * The owner pushes n tasks and pops them while thieves steal; every task
+     * must be taken exactly once
+     *
+     * @param n       number of tasks
+     * @param thieves number of thief threads
+     * @return elapsed time in seconds, or -1 if a task was lost or duplicated
+     */
+    private static double run(int n, int thieves) {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+        AtomicLongArray taken = new AtomicLongArray(n);
+        Thread[] workers = new Thread[thieves];
+        AtomicBoolean done = new AtomicBoolean();
+        for (int k = 0; k < thieves; k++) {
+            workers[k] = new Thread(() -> {
+                while (true) {
+                    Integer task = deque.pollFirst();
+                    if (task != null) taken.incrementAndGet(task);
+                    else if (done.get()) return;
+                }
+            });
+        }
+        Stopwatch time = new Stopwatch();
+        for (Thread worker : workers) worker.start();
+        for (int i = 0; i < n; i++) {
+            deque.addLast(i);
+            if (i % 3 == 0) {
+                Integer task = deque.pollLast();
+                if (task != null) taken.incrementAndGet(task);
+            }
+        }
+        Integer task;
+        while ((task = deque.pollLast()) != null) {
+            taken.incrementAndGet(task);
+        }
+        done.set(true);
+        try {
+            for (Thread worker : workers) worker.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double elapsed = time.elapsedTime();
+        for (int i = 0; i < n; i++) {
+            if (taken.get(i) != 1) return -1;
+        }
+        return elapsed;
+    }
+
+
+    /**
+     * Unit tests the <code>WorkStealingDeque</code> data type
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        WorkStealingDeque<Integer> queue = new WorkStealingDeque<Integer>();
+        for (int i = 0; i < 40; i++) {
+            queue.addLast(i);
+        }
+        StdOut.println(queue.size());
+        StdOut.println(queue.removeFirst());
+        StdOut.println(queue.removeLast());
+        int sum = 0;
+        for (int a : queue) {
+            sum += a;
+        }
+        StdOut.println(sum);
+
+        // stolen and popped items must not stay reachable from the buffer
+        for (int i = 0; i < 10; i++) {
+            queue.removeFirst();
+        }
+        queue.removeLast();
+        int held = 0;
+        for (int i = 0; i < queue.array.length(); i++) {
+            if (queue.array.get(i) != null) held++;
+        }
+        StdOut.println(held == queue.size());
+
+        int n = 2000000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int thieves = 1; thieves <= Math.max(2, cores); thieves *= 2) {
+            double elapsed = run(n, thieves);
+            if (elapsed < 0) StdOut.println(thieves + " thieves: task lost or duplicated");
+            else StdOut.printf("%d thieves: %.2f M tasks/s%n", thieves, n / elapsed / 1e6);
+        }
+    }
+
+}
@@ -13,23 +13,35 @@
  *
  **************************************************************************** */
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.PriorityQueue;
 
 public class Autocomplete {
 
     /**
-     * terms: an array of <code>Terms</code>
+     * The terms are stored as two sorted columns rather than as Term objects
+     * queries: the queries in lexicographic order
+     * weights: weights[i] is the weight of queries[i]
+     * best: iterative segment tree over the terms; best[n + i] = i and each
+     * internal node holds the index of the heaviest term below it
      */
-    private Term[] terms;
+    private final String[] queries;
+    private final long[] weights;
+    private int[] best;
 
     /**
      * Constructor of <code>Autocomplete</code>
-     * Initializes the data structure from the given array of terms.
+     * Initializes the data structure from the given array of terms, which is
+     * sorted in place with <code>Arrays.parallelSort</code>.
      *
      * @param terms an array of <code>Terms</code>
      */
@@ -37,8 +49,151 @@ public class Autocomplete {
         if (terms == null) {
             throw new IllegalArgumentException("Invalid parameter in Autocomplete constructor");
         }
-        this.terms = terms;
-        Arrays.sort(this.terms);
+        Arrays.parallelSort(terms);
+        int n = terms.length;
+        queries = new String[n];
+        weights = new long[n];
+        for (int i = 0; i < n; i++) {
+            queries[i] = terms[i].getQuery();
+            weights[i] = terms[i].getWeight();
+        }
+        buildTree();
+    }
+
+    /**
+     * Constructor of <code>Autocomplete</code> from sorted columns
+     *
+     * @param queries the queries, sorted
+     * @param weights the weights of the queries
+     */
+    private Autocomplete(String[] queries, long[] weights) {
+        this.queries = queries;
+        this.weights = weights;
+        buildTree();
+    }
+
+
+    /**
+     * Reads a term file (the number of terms, then one weight, tab and query
+     * per line) straight into query and weight columns, with no Term objects,
+     * and sorts the columns with a parallel 3-way string quicksort
+     *
+     * @param filename the term file
+     * @return an <code>Autocomplete</code> over the terms in the file
+     */
+    public static Autocomplete load(String filename) {
+        if (filename == null) {
+            throw new IllegalArgumentException("Invalid parameter in load()");
+        }
+        String[] queries;
+        long[] weights;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(filename),
+                                                         StandardCharsets.UTF_8)) {
+            String header = in.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("Missing number of terms in " + filename);
+            }
+            int n = Integer.parseInt(header.trim());
+            if (n < 0) {
+                throw new IllegalArgumentException("Negative number of terms in " + filename);
+            }
+            queries = new String[n];
+            weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                String line = in.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("expected " + n + " terms, found " + i);
+                }
+                int j = 0;
+                while (j < line.length() && line.charAt(j) == ' ') j++;
+                int start = j;
+                long weight = 0;
+                for (; j < line.length() && line.charAt(j) != '\t'; j++) {
+                    char c = line.charAt(j);
+                    if (c < '0' || c > '9') {
+                        throw new IllegalArgumentException("Invalid weight in term " + i);
+                    }
+                    int digit = c - '0';
+                    if (weight > (Long.MAX_VALUE - digit) / 10) {
+                        throw new IllegalArgumentException("Weight out of range in term " + i);
+                    }
+                    weight = 10 * weight + digit;
+                }
+                if (j == start || j == line.length()) {
+                    throw new IllegalArgumentException("Missing weight or tab in term " + i);
+                }
+                queries[i] = line.substring(j + 1);
+                weights[i] = weight;
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ParallelQuick3String.sort(queries, weights);
+        return new Autocomplete(queries, weights);
+    }
+
+
+    /**
+     * Builds the segment tree over the weights of the sorted terms in linear
+     * time
+     */
+    private void buildTree() {
+        int n = queries.length;
+        best = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            best[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            best[i] = heavier(best[2 * i], best[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Returns the index of the heavier of two terms; ties go to the smaller
+     * index, which matches the stable sort in <code>allMatches</code>
+     *
+     * @param i the index of the first term
+     * @param j the index of the second term
+     * @return the index of the heavier term
+     */
+    private int heavier(int i, int j) {
+        long wi = weights[i];
+        long wj = weights[j];
+        if (wi != wj) return wi > wj ? i : j;
+        return Math.min(i, j);
+    }
+
+    /**
+     * Returns the index of the heaviest term in terms[lo..hi]
+     *
+     * @param lo the first index of the range
+     * @param hi the last index of the range, at least lo
+     * @return the index of the heaviest term
+     */
+    private int heaviest(int lo, int hi) {
+        int n = queries.length;
+        int ans = lo;
+        for (int l = lo + n, r = hi + n + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) ans = heavier(ans, best[l++]);
+            if ((r & 1) == 1) ans = heavier(ans, best[--r]);
+        }
+        return ans;
+    }
+
+    /**
+     * A range of sorted terms together with the index of its heaviest term
+     */
+    private static class Range {
+        private final int lo;
+        private final int hi;
+        private final int top;
+
+        Range(int lo, int hi, int top) {
+            this.lo = lo;
+            this.hi = hi;
+            this.top = top;
+        }
     }
 
 
@@ -53,19 +208,57 @@ public class Autocomplete {
         if (prefix == null) {
             throw new IllegalArgumentException("Invalid parameter in allMatches()");
         }
-        Term temp = new Term(prefix, 0);
-        Comparator<Term> comparatorK = Term.byPrefixOrder(prefix.length());
-        int first = BinarySearchDeluxe.firstIndexOf(terms, temp, comparatorK);
-        int last = BinarySearchDeluxe.lastIndexOf(terms, temp, comparatorK);
-        Term[] ans = new Term[last - first + 1];
-        for (int i = 0; i < last - first + 1; i++) {
-            ans[i] = terms[first + i];
+        long range = BinarySearchDeluxe.prefixRange(queries, prefix);
+        int first = (int) (range >>> 32);
+        int end = (int) range;
+        Term[] ans = new Term[end - first];
+        for (int i = 0; i < end - first; i++) {
+            ans[i] = new Term(queries[first + i], weights[first + i]);
         }
         Arrays.sort(ans, Term.byReverseWeightOrder());
         return ans;
     }
 
 
+    /**
+     * Returns the k heaviest terms that start with the given prefix, in
+     * descending order of weight; the same terms as the first k of
+     * <code>allMatches</code>, found without copying or sorting the others.
+     * The heaviest term of the match range is taken out and the two ranges
+     * either side of it go on a priority queue, so the cost is O(log n) to
+     * find the range plus O(k log n) to extract k terms.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @param k      the maximum number of terms to return
+     * @return an array of at most k <code>Terms</code> in descending order of
+     * weight
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null || k < 0) {
+            throw new IllegalArgumentException("Invalid parameter in topMatches()");
+        }
+        long bounds = BinarySearchDeluxe.prefixRange(queries, prefix);
+        int first = (int) (bounds >>> 32);
+        int last = (int) bounds - 1;
+        if (k == 0 || first > last) return new Term[0];
+        Term[] ans = new Term[Math.min(k, last - first + 1)];
+        PriorityQueue<Range> pq = new PriorityQueue<Range>(
+                (a, b) -> a.top == b.top ? 0 : heavier(a.top, b.top) == a.top ? -1 : 1);
+        pq.add(new Range(first, last, heaviest(first, last)));
+        for (int i = 0; i < ans.length; i++) {
+            Range range = pq.remove();
+            ans[i] = new Term(queries[range.top], weights[range.top]);
+            if (range.lo < range.top) {
+                pq.add(new Range(range.lo, range.top - 1, heaviest(range.lo, range.top - 1)));
+            }
+            if (range.top < range.hi) {
+                pq.add(new Range(range.top + 1, range.hi, heaviest(range.top + 1, range.hi)));
+            }
+        }
+        return ans;
+    }
+
+
     /**
      * Returns the number of terms that start with the given prefix.
      *
@@ -77,11 +270,8 @@ public class Autocomplete {
             throw new IllegalArgumentException();
         }
         else {
-            Term temp = new Term(prefix, 1);
-            Comparator<Term> comparatorK = Term.byPrefixOrder(prefix.length());
-            int first = BinarySearchDeluxe.firstIndexOf(terms, temp, comparatorK);
-            int last = BinarySearchDeluxe.lastIndexOf(terms, temp, comparatorK);
-            return last - first + 1;
+            long range = BinarySearchDeluxe.prefixRange(queries, prefix);
+            return (int) range - (int) (range >>> 32);
         }
     }
 
@@ -93,24 +283,15 @@ public class Autocomplete {
     public static void main(String[] args) {
         // read in the terms from a file
         String filename = args[0];
-        In in = new In(filename);
-        int n = in.readInt();
-        Term[] terms = new Term[n];
-        for (int i = 0; i < n; i++) {
-            long weight = in.readLong();           // read the next weight
-            in.readChar();                         // scan past the tab
-            String query = in.readLine();          // read the next query
-            terms[i] = new Term(query, weight);    // construct the term
-        }
+        Autocomplete autocomplete = load(filename);
 
         // read in queries from standard input and print the top k matching terms
         int k = Integer.parseInt(args[1]);
-        Autocomplete autocomplete = new Autocomplete(terms);
         while (StdIn.hasNextLine()) {
             String prefix = StdIn.readLine();
-            Term[] results = autocomplete.allMatches(prefix);
+            Term[] results = autocomplete.topMatches(prefix, k);
             StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
-            for (int i = 0; i < Math.min(k, results.length); i++)
+            for (int i = 0; i < results.length; i++)
                 StdOut.println(results[i]);
         }
     }
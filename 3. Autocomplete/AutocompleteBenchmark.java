@@ -0,0 +1,214 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Partner Name:    Ada Lovelace
+ *  Partner NetID:   alovelace
+ *  Partner Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Timing client that compares the autocomplete engines in this directory on
+ * construction time, extra heap and top-k query latency. For
+ * <code>Autocomplete.load</code> the construction time includes reading the
+ * file; for <code>MappedAutocomplete</code> the index is written beforehand
+ * and the construction time is the time to open it.
+ */
+public class AutocompleteBenchmark {
+
+    /**
+     * The query under test
+     */
+    private interface TopK {
+        Term[] topMatches(String prefix, int k);
+    }
+
+    /**
+     * Returns the heap in use after a garbage collection, in bytes
+     *
+     * @return the heap in use, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Reads the terms from a file in the assignment's format
+     *
+     * @param filename the file
+     * @return the terms
+     */
+    private static Term[] read(String filename) {
+        In in = new In(filename);
+        int n = in.readInt();
+        Term[] terms = new Term[n];
+        for (int i = 0; i < n; i++) {
+            long weight = in.readLong();
+            in.readChar();
+            terms[i] = new Term(in.readLine(), weight);
+        }
+        return terms;
+    }
+
+    /**
+     * Returns n random lower-case terms of 4 to 11 letters with heavy-tailed
+     * weights
+     *
+     * @param n the number of terms
+     * @return the terms
+     */
+    private static Term[] synthetic(int n) {
+        Term[] terms = new Term[n];
+        char[] c = new char[11];
+        for (int i = 0; i < n; i++) {
+            int length = 4 + StdRandom.uniform(8);
+            for (int j = 0; j < length; j++) {
+                c[j] = (char) ('a' + StdRandom.uniform(26));
+            }
+            long weight = (long) (1e9 / (1 + StdRandom.uniform(n)));
+            terms[i] = new Term(new String(c, 0, length), weight);
+        }
+        return terms;
+    }
+
+    /**
+     * Returns prefixes of 1 to 4 characters of random terms, so that short,
+     * broad prefixes are well represented
+     *
+     * @param terms the terms
+     * @param m     the number of prefixes
+     * @return the prefixes
+     */
+    private static String[] prefixes(Term[] terms, int m) {
+        String[] prefixes = new String[m];
+        for (int i = 0; i < m; i++) {
+            String query = terms[StdRandom.uniform(terms.length)].getQuery();
+            prefixes[i] = query.substring(0, Math.min(query.length(), 1 + i % 4));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Returns true if two results hold the same queries and weights in the
+     * same order; engines may return different <code>Term</code> instances
+     */
+    private static boolean same(Term[] a, Term[] b) {
+        if (a.length != b.length) return false;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].getWeight() != b[i].getWeight()
+                    || !a[i].getQuery().equals(b[i].getQuery())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Builds an engine over a private copy of the terms and prints its build
+     * time, the heap it adds on top of the terms and its mean query latency
+     *
+     * @param name     the engine
+     * @param build    constructs the engine
+     * @param terms    the terms
+     * @param prefixes the queries
+     * @param k        the number of matches per query
+     * @param expected the results of the baseline engine for each prefix, or
+     *                 null when this is the baseline
+     * @return the engine's results for each prefix
+     */
+    private static Term[][] run(String name, Function<Term[], TopK> build, Term[] terms,
+                                String[] prefixes, int k, Term[][] expected) {
+        Term[] copy = Arrays.copyOf(terms, terms.length);
+        long heap = usedHeap();
+        Stopwatch time = new Stopwatch();
+        TopK engine = build.apply(copy);
+        double construct = time.elapsedTime();
+        long bytes = usedHeap() - heap;
+        // warm up while checking against the baseline, then time
+        Term[][] results = new Term[prefixes.length][];
+        int mismatches = 0;
+        for (int i = 0; i < prefixes.length; i++) {
+            results[i] = engine.topMatches(prefixes[i], k);
+            if (expected != null && !same(results[i], expected[i])) mismatches++;
+        }
+        long sum = 0;
+        time = new Stopwatch();
+        for (String prefix : prefixes) {
+            sum += engine.topMatches(prefix, k).length;
+        }
+        double query = time.elapsedTime();
+        // keep the result live so the queries cannot be optimized away
+        if (sum < 0) StdOut.println(sum);
+        StdOut.printf("%-18s %10.3f %12.1f %12.2f%n", name, construct, bytes / 1e6,
+                      query / prefixes.length * 1e6);
+        if (mismatches > 0) {
+            StdOut.println(name + " disagrees with Autocomplete on " + mismatches + " queries");
+        }
+        return results;
+    }
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args optional term file, or number of synthetic terms
+     *             (default 1,000,000), then k (default 10) and the number of
+     *             queries (default 100,000)
+     */
+    public static void main(String[] args) {
+        String filename = null;
+        Term[] terms;
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            filename = args[0];
+            terms = read(filename);
+        }
+        else terms = synthetic(args.length > 0 ? Integer.parseInt(args[0]) : 1000000);
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int m = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        String[] prefixes = prefixes(terms, m);
+
+        StdOut.printf("%-18s %10s %12s %12s%n", "n = " + terms.length, "build (s)",
+                      "heap (MB)", "query (us)");
+        Term[][] expected = run("Autocomplete", a -> new Autocomplete(a)::topMatches, terms,
+                                prefixes, k, null);
+        if (filename != null) {
+            String file = filename;
+            run("Autocomplete.load", a -> Autocomplete.load(file)::topMatches, terms, prefixes, k,
+                expected);
+        }
+        run("TrieAutocomplete", a -> new TrieAutocomplete(a)::topMatches, terms, prefixes, k,
+            expected);
+
+        File index;
+        try {
+            index = File.createTempFile("autocomplete", ".idx");
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.deleteOnExit();
+        Stopwatch time = new Stopwatch();
+        MappedAutocomplete.build(terms, index.getPath());
+        double write = time.elapsedTime();
+        run("MappedAutocomplete", a -> new MappedAutocomplete(index.getPath())::topMatches, terms,
+            prefixes, k, expected);
+        StdOut.printf("index: %.3f s to write, %.1f MB on disk%n", write, index.length() / 1e6);
+    }
+}
@@ -15,6 +15,8 @@
 
 import edu.princeton.cs.algs4.StdOut;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Arrays;
 import java.util.Comparator;
 
@@ -81,6 +83,125 @@ public class BinarySearchDeluxe {
         return ans;
     }
 
+    /**
+     * Compares the first prefix.length() characters of <code>s</code> with the
+     * prefix, as <code>Term.byPrefixOrder</code> does, without allocating
+     *
+     * @param s      a string
+     * @param prefix the prefix
+     * @return a negative integer, zero if <code>s</code> starts with the
+     * prefix, or a positive integer
+     */
+    private static int comparePrefix(String s, CharSequence prefix) {
+        int r = prefix.length();
+        int m = Math.min(r, s.length());
+        for (int i = 0; i < m; i++) {
+            char c = s.charAt(i);
+            char p = prefix.charAt(i);
+            if (c != p) return c < p ? -1 : 1;
+        }
+        return m == r ? 0 : -1;
+    }
+
+    /**
+     * Returns the first index in [lo, hi) whose string is at least the prefix
+     * (<code>strict</code> false) or above every string starting with it
+     * (true)
+     */
+    private static int bound(String[] a, CharSequence prefix, int lo, int hi, boolean strict) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int compare = comparePrefix(a[mid], prefix);
+            if (compare < 0 || (strict && compare == 0)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+
+    /**
+     * Returns the range of strings in the sorted array a[] that start with the
+     * prefix, found in one pass: the two bounds share the search down to the
+     * first string that matches, then split. The range is packed in a long so
+     * that nothing is allocated.
+     *
+     * @param a      sorted array
+     * @param prefix search prefix
+     * @return (first &lt;&lt; 32) | end, where the matches are
+     * a[first, end); <code>first == end</code> if there are none
+     */
+    public static long prefixRange(String[] a, CharSequence prefix) {
+        if ((a == null) || (prefix == null)) {
+            throw new IllegalArgumentException("Invalid parameters in prefixRange()");
+        }
+        int lo = 0;
+        int hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int compare = comparePrefix(a[mid], prefix);
+            if (compare < 0) lo = mid + 1;
+            else if (compare > 0) hi = mid;
+            else {
+                int first = bound(a, prefix, lo, mid, false);
+                int end = bound(a, prefix, mid + 1, hi, true);
+                return ((long) first << 32) | end;
+            }
+        }
+        return ((long) lo << 32) | lo;
+    }
+
+
+    /**
+     * Returns the index of the first string in the sorted array a[] that
+     * starts with the prefix, or -1 if no such string; allocation free
+     *
+     * @param a      sorted array
+     * @param prefix search prefix
+     * @return the index of the first match in <code>a</code> if present
+     * -1 if none
+     */
+    public static int firstIndexOf(String[] a, CharSequence prefix) {
+        if ((a == null) || (prefix == null)) {
+            throw new IllegalArgumentException("Invalid parameters in firstIndexOf()");
+        }
+        int first = bound(a, prefix, 0, a.length, false);
+        if (first < a.length && comparePrefix(a[first], prefix) == 0) return first;
+        return -1;
+    }
+
+
+    /**
+     * Returns the index of the last string in the sorted array a[] that
+     * starts with the prefix, or -1 if no such string; allocation free
+     *
+     * @param a      sorted array
+     * @param prefix search prefix
+     * @return the index of the last match in <code>a</code> if present
+     * -1 if none
+     */
+    public static int lastIndexOf(String[] a, CharSequence prefix) {
+        if ((a == null) || (prefix == null)) {
+            throw new IllegalArgumentException("Invalid parameters in lastIndexOf()");
+        }
+        int last = bound(a, prefix, 0, a.length, true) - 1;
+        if (last >= 0 && comparePrefix(a[last], prefix) == 0) return last;
+        return -1;
+    }
+
+
+    /**
+     * Returns the bytes allocated by the current thread so far, or -1 if the
+     * JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+
     /**
      * Unit testing for <code>BinarySearchDeluxe</code> data type
      *
@@ -101,5 +222,53 @@ public class BinarySearchDeluxe {
         StdOut.println(findex);
         int lindex = BinarySearchDeluxe.lastIndexOf(t, new Term("do", 0), Term.byPrefixOrder(2));
         StdOut.println(lindex);
+
+        String[] q = new String[t.length];
+        for (int i = 0; i < t.length; i++) {
+            q[i] = t[i].getQuery();
+        }
+        long range = BinarySearchDeluxe.prefixRange(q, "do");
+        StdOut.println(BinarySearchDeluxe.firstIndexOf(q, "do") + " "
+                               + BinarySearchDeluxe.lastIndexOf(q, "do") + " "
+                               + (range >>> 32) + " " + (int) range + " "
+                               + BinarySearchDeluxe.firstIndexOf(q, "e"));
+
+        // allocation per search: Term key and comparator against the String
+        // overloads, over a larger sorted array
+        int n = 1 << 16;
+        Term[] terms = new Term[n];
+        String[] queries = new String[n];
+        String[] prefixes = new String[n];
+        for (int i = 0; i < n; i++) {
+            terms[i] = new Term(Integer.toString(n + i, 36), i);
+        }
+        Arrays.sort(terms);
+        for (int i = 0; i < n; i++) {
+            queries[i] = terms[i].getQuery();
+            prefixes[i] = queries[i].substring(0, 2);
+        }
+        int searches = 1000000;
+        long sum = 0;
+        for (int round = 0; round < 2; round++) {
+            long before = allocatedBytes();
+            for (int i = 0; i < searches; i++) {
+                Term key = new Term(prefixes[i & (n - 1)], 0);
+                Comparator<Term> comparator = Term.byPrefixOrder(2);
+                sum += BinarySearchDeluxe.firstIndexOf(terms, key, comparator)
+                        + BinarySearchDeluxe.lastIndexOf(terms, key, comparator);
+            }
+            long generic = allocatedBytes() - before;
+            before = allocatedBytes();
+            for (int i = 0; i < searches; i++) {
+                long r = BinarySearchDeluxe.prefixRange(queries, prefixes[i & (n - 1)]);
+                sum -= (r >>> 32) + (int) r - 1;
+            }
+            long packed = allocatedBytes() - before;
+            if (round == 1) {
+                StdOut.printf("bytes per search: Term and comparator %.1f, prefixRange %.1f%n",
+                              (double) generic / searches, (double) packed / searches);
+            }
+        }
+        if (sum != 0) StdOut.println("result mismatch");
     }
 }
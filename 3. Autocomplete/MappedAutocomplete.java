@@ -0,0 +1,484 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Partner Name:    Ada Lovelace
+ *  Partner NetID:   alovelace
+ *  Partner Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Autocomplete engine that answers queries straight from an index file
+ * written by <code>build</code>, mapped with a single
+ * <code>MappedByteBuffer</code>. Opening an index reads only its header, so
+ * startup is immediate and the heap holds no per-term objects; pages are
+ * loaded by the operating system as queries touch them.
+ * <p>
+ * The file holds, after a 64-byte header:
+ * <ul>
+ * <li>weights: one long per term, in query order</li>
+ * <li>tree: the argmax segment tree of <code>Autocomplete</code>, one int
+ * per node</li>
+ * <li>blocks: the offset in the pool of each block of <code>BLOCK</code>
+ * queries</li>
+ * <li>pool: the UTF-8 queries, sorted bytewise and front coded; each block
+ * starts with a full query (length, bytes) and every other query is stored
+ * as (length shared with the previous query, suffix length, suffix
+ * bytes), all lengths as varints</li>
+ * </ul>
+ * Sorting by UTF-8 bytes is sorting by code point, which differs from
+ * <code>String.compareTo</code> only for characters above U+FFFF.
+ */
+public class MappedAutocomplete {
+
+    private static final int MAGIC = 0x41434931;   // "ACI1"
+    private static final int BLOCK = 16;
+    private static final int HEADER = 64;
+
+    /**
+     * index: the mapped file
+     * n: number of terms
+     * maxLength: length of the longest query in bytes
+     * weights, tree, blocks, pool: byte offsets of the columns
+     */
+    private final MappedByteBuffer index;
+    private final int n;
+    private final int maxLength;
+    private final int weights;
+    private final int tree;
+    private final int blocks;
+    private final int pool;
+
+    /**
+     * Constructor of <code>MappedAutocomplete</code>
+     * Maps an index file written by <code>build</code>.
+     *
+     * @param filename the index file
+     */
+    public MappedAutocomplete(String filename) {
+        if (filename == null) {
+            throw new IllegalArgumentException("Invalid parameter in MappedAutocomplete constructor");
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (index.capacity() < HEADER || index.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not an autocomplete index: " + filename);
+        }
+        n = index.getInt(4);
+        maxLength = index.getInt(12);
+        weights = index.getInt(16);
+        tree = index.getInt(20);
+        blocks = index.getInt(24);
+        pool = index.getInt(28);
+    }
+
+
+    /**
+     * Returns the number of bytes a varint takes
+     */
+    private static int varintSize(int x) {
+        int size = 1;
+        while ((x >>>= 7) != 0) size++;
+        return size;
+    }
+
+    /**
+     * Writes a varint at <code>pos</code> and returns the position after it
+     */
+    private static int putVarint(MappedByteBuffer out, int pos, int x) {
+        while ((x & ~0x7f) != 0) {
+            out.put(pos++, (byte) ((x & 0x7f) | 0x80));
+            x >>>= 7;
+        }
+        out.put(pos++, (byte) x);
+        return pos;
+    }
+
+    /**
+     * Returns the length of the longest common prefix of two byte strings
+     */
+    private static int lcp(byte[] a, byte[] b) {
+        int m = Arrays.mismatch(a, b);
+        return m < 0 ? a.length : m;
+    }
+
+    /**
+     * Writes an index of the terms to a file; offline and single-threaded
+     *
+     * @param terms    the terms, in any order
+     * @param filename the index file to create or replace
+     */
+    public static void build(Term[] terms, String filename) {
+        if (terms == null || filename == null) {
+            throw new IllegalArgumentException("Invalid parameters in build()");
+        }
+        int n = terms.length;
+        byte[][] queries = new byte[n][];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            queries[i] = terms[i].getQuery().getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(queries[a], queries[b]));
+
+        // sizes first, so the file can be mapped once at its final length
+        long poolSize = 0;
+        int maxLength = 0;
+        for (int i = 0; i < n; i++) {
+            byte[] q = queries[order[i]];
+            maxLength = Math.max(maxLength, q.length);
+            if (i % BLOCK == 0) poolSize += varintSize(q.length) + q.length;
+            else {
+                int shared = lcp(q, queries[order[i - 1]]);
+                poolSize += varintSize(shared) + varintSize(q.length - shared) + q.length - shared;
+            }
+        }
+        int blockCount = (n + BLOCK - 1) / BLOCK;
+        long weightsAt = HEADER;
+        long treeAt = weightsAt + 8L * n;
+        long blocksAt = treeAt + 4L * 2 * n;
+        long poolAt = blocksAt + 4L * blockCount;
+        long length = poolAt + poolSize;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("index would exceed 2 GB: " + length + " bytes");
+        }
+
+        long[] w = new long[n];
+        for (int i = 0; i < n; i++) {
+            w[i] = terms[order[i]].getWeight();
+        }
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            out.putInt(0, MAGIC);
+            out.putInt(4, n);
+            out.putInt(8, BLOCK);
+            out.putInt(12, maxLength);
+            out.putInt(16, (int) weightsAt);
+            out.putInt(20, (int) treeAt);
+            out.putInt(24, (int) blocksAt);
+            out.putInt(28, (int) poolAt);
+            for (int i = 0; i < n; i++) {
+                out.putLong((int) weightsAt + 8 * i, w[i]);
+            }
+            // segment tree: leaves at n + i, ties to the smaller index
+            int[] best = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                best[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int a = best[2 * i];
+                int b = best[2 * i + 1];
+                best[i] = w[a] != w[b] ? (w[a] > w[b] ? a : b) : Math.min(a, b);
+            }
+            for (int i = 0; i < 2 * n; i++) {
+                out.putInt((int) treeAt + 4 * i, best[i]);
+            }
+            int pos = (int) poolAt;
+            for (int i = 0; i < n; i++) {
+                byte[] q = queries[order[i]];
+                int shared = 0;
+                if (i % BLOCK == 0) {
+                    out.putInt((int) blocksAt + 4 * (i / BLOCK), pos - (int) poolAt);
+                }
+                else {
+                    shared = lcp(q, queries[order[i - 1]]);
+                    pos = putVarint(out, pos, shared);
+                }
+                pos = putVarint(out, pos, q.length - shared);
+                for (int j = shared; j < q.length; j++) {
+                    out.put(pos++, q[j]);
+                }
+            }
+            out.force();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Cursor that decodes the queries of one block in order into a buffer
+     * owned by the calling query, so concurrent queries do not interfere
+     */
+    private final class Cursor {
+        private final byte[] query = new byte[maxLength];
+        private int length;
+        private int next;
+        private int pos;
+
+        /**
+         * Positions the cursor before the first query of block b
+         */
+        void seek(int b) {
+            next = b * BLOCK;
+            pos = pool + index.getInt(blocks + 4 * b);
+        }
+
+        private int varint() {
+            int x = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = index.get(pos++);
+                x |= (b & 0x7f) << shift;
+                if (b >= 0) return x;
+            }
+        }
+
+        /**
+         * Decodes the next query into <code>query[0, length)</code>
+         *
+         * @return the index of the query decoded
+         */
+        int advance() {
+            int shared = next % BLOCK == 0 ? 0 : varint();
+            int suffix = varint();
+            index.get(pos, query, shared, suffix);
+            pos += suffix;
+            length = shared + suffix;
+            return next++;
+        }
+
+        /**
+         * Compares the first prefix.length bytes of the current query with
+         * the prefix: negative, zero if the query starts with the prefix, or
+         * positive
+         */
+        int comparePrefix(byte[] prefix) {
+            int m = Math.min(length, prefix.length);
+            int c = Arrays.compareUnsigned(query, 0, m, prefix, 0, m);
+            if (c != 0) return c;
+            return length < prefix.length ? -1 : 0;
+        }
+
+        String string() {
+            return new String(query, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns the first index whose query compares with the prefix at or
+     * above zero (<code>strict</code> false) or above zero (true); the block
+     * heads are binary searched and then one block is decoded
+     *
+     * @param prefix the UTF-8 prefix
+     * @param strict which bound to find
+     * @param cursor a cursor to decode with
+     * @return the bound, in [0, n]
+     */
+    private int bound(byte[] prefix, boolean strict, Cursor cursor) {
+        int lo = 0;
+        int hi = (n + BLOCK - 1) / BLOCK - 1;
+        int b = -1;
+        // b: the last block whose head is still below the bound
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            cursor.seek(mid);
+            cursor.advance();
+            int c = cursor.comparePrefix(prefix);
+            if (c < 0 || (strict && c == 0)) {
+                b = mid;
+                lo = mid + 1;
+            }
+            else hi = mid - 1;
+        }
+        if (b < 0) return 0;
+        cursor.seek(b);
+        int end = Math.min(n, (b + 1) * BLOCK);
+        for (int i = b * BLOCK; i < end; i++) {
+            cursor.advance();
+            int c = cursor.comparePrefix(prefix);
+            if (c > 0 || (!strict && c == 0)) return i;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the query of term i
+     */
+    private String query(int i, Cursor cursor) {
+        cursor.seek(i / BLOCK);
+        while (cursor.advance() < i) {
+            // decode up to term i
+        }
+        return cursor.string();
+    }
+
+    private long weight(int i) {
+        return index.getLong(weights + 8 * i);
+    }
+
+
+    /**
+     * Returns the number of terms that start with the given prefix.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @return the number of terms that start with given prefix
+     */
+    public int numberOfMatches(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Invalid parameter in numberOfMatches()");
+        }
+        if (n == 0) return 0;
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = new Cursor();
+        return bound(key, true, cursor) - bound(key, false, cursor);
+    }
+
+
+    /**
+     * Returns all terms that start with the given prefix, in descending order
+     * of weight.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @return an array of <code>Terms</code> in descending order of weight
+     */
+    public Term[] allMatches(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Invalid parameter in allMatches()");
+        }
+        if (n == 0) return new Term[0];
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = new Cursor();
+        int first = bound(key, false, cursor);
+        int last = bound(key, true, cursor);
+        Term[] ans = new Term[last - first];
+        if (ans.length == 0) return ans;
+        // blocks are contiguous in the pool, so one pass decodes the range
+        cursor.seek(first / BLOCK);
+        for (int i = cursor.advance(); i < last; i = cursor.advance()) {
+            if (i >= first) ans[i - first] = new Term(cursor.string(), weight(i));
+            if (i + 1 == last) break;
+        }
+        Arrays.sort(ans, Term.byReverseWeightOrder());
+        return ans;
+    }
+
+
+    /**
+     * Returns the index of the heavier of two terms, ties to the smaller
+     */
+    private int heavier(int i, int j) {
+        long wi = weight(i);
+        long wj = weight(j);
+        if (wi != wj) return wi > wj ? i : j;
+        return Math.min(i, j);
+    }
+
+    /**
+     * Returns the index of the heaviest term in [lo, hi] from the tree column
+     */
+    private int heaviest(int lo, int hi) {
+        int ans = lo;
+        for (int l = lo + n, r = hi + n + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) ans = heavier(ans, index.getInt(tree + 4 * l++));
+            if ((r & 1) == 1) ans = heavier(ans, index.getInt(tree + 4 * --r));
+        }
+        return ans;
+    }
+
+
+    /**
+     * Returns the k heaviest terms that start with the given prefix, in
+     * descending order of weight, by the same range expansion as
+     * <code>Autocomplete.topMatches</code> over the mapped tree column; only
+     * the k queries returned are decoded
+     *
+     * @param prefix the prefix that the terms should start with
+     * @param k      the maximum number of terms to return
+     * @return an array of at most k <code>Terms</code> in descending order of
+     * weight
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null || k < 0) {
+            throw new IllegalArgumentException("Invalid parameter in topMatches()");
+        }
+        if (n == 0 || k == 0) return new Term[0];
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = new Cursor();
+        int first = bound(key, false, cursor);
+        int last = bound(key, true, cursor) - 1;
+        if (first > last) return new Term[0];
+        Term[] ans = new Term[Math.min(k, last - first + 1)];
+        // ranges as {lo, hi, top}
+        PriorityQueue<int[]> pq = new PriorityQueue<int[]>(
+                (a, b) -> a[2] == b[2] ? 0 : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+        pq.add(new int[] { first, last, heaviest(first, last) });
+        for (int i = 0; i < ans.length; i++) {
+            int[] range = pq.remove();
+            int top = range[2];
+            ans[i] = new Term(query(top, cursor), weight(top));
+            if (range[0] < top) pq.add(new int[] { range[0], top - 1, heaviest(range[0], top - 1) });
+            if (top < range[1]) pq.add(new int[] { top + 1, range[1], heaviest(top + 1, range[1]) });
+        }
+        return ans;
+    }
+
+    /**
+     * Builds or queries an index.
+     * <code>MappedAutocomplete build terms.txt index.bin</code> writes the
+     * index of a term file;
+     * <code>MappedAutocomplete index.bin k</code> prints the top k matches of
+     * each prefix on standard input.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args[0].equals("build")) {
+            In in = new In(args[1]);
+            int n = in.readInt();
+            Term[] terms = new Term[n];
+            for (int i = 0; i < n; i++) {
+                long weight = in.readLong();           // read the next weight
+                in.readChar();                         // scan past the tab
+                String query = in.readLine();          // read the next query
+                terms[i] = new Term(query, weight);    // construct the term
+            }
+            Stopwatch time = new Stopwatch();
+            build(terms, args[2]);
+            StdOut.printf("indexed %d terms in %.2f s%n", n, time.elapsedTime());
+            return;
+        }
+
+        Stopwatch time = new Stopwatch();
+        MappedAutocomplete autocomplete = new MappedAutocomplete(args[0]);
+        StdOut.printf("opened in %.3f s%n", time.elapsedTime());
+        int k = Integer.parseInt(args[1]);
+        while (StdIn.hasNextLine()) {
+            String prefix = StdIn.readLine();
+            Term[] results = autocomplete.topMatches(prefix, k);
+            StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
+            for (int i = 0; i < results.length; i++)
+                StdOut.println(results[i]);
+        }
+    }
+}
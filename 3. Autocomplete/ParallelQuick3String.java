@@ -0,0 +1,213 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Partner Name:    Ada Lovelace
+ *  Partner NetID:   alovelace
+ *  Partner Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Parallel 3-way string quicksort (Bentley and Sedgewick) of an array of
+ * strings together with a parallel column of weights. Each partition step
+ * looks at one character per string rather than comparing whole strings.
+ * The outer parts of a large partition are forked as fork/join tasks while the
+ * current thread goes on with the middle part, the one that grows with shared
+ * prefixes. The order is that of <code>String.compareTo</code>.
+ */
+public class ParallelQuick3String {
+
+    /**
+     * subarrays shorter than CUTOFF are insertion sorted; subarrays of at
+     * least PARALLEL items are split into tasks
+     */
+    private static final int CUTOFF = 16;
+    private static final int PARALLEL = 1 << 13;
+
+    // do not instantiate
+    private ParallelQuick3String() {
+    }
+
+    /**
+     * Sorts the strings, applying the same permutation to the weights
+     *
+     * @param a the strings
+     * @param w the weights, w[i] belonging to a[i]
+     */
+    public static void sort(String[] a, long[] w) {
+        if (a == null || w == null || a.length != w.length) {
+            throw new IllegalArgumentException("Invalid parameters in sort()");
+        }
+        ForkJoinPool.commonPool().invoke(new Task(a, w, 0, a.length - 1, 0));
+    }
+
+    /**
+     * Returns the dth character of s, or -1 past its end
+     */
+    private static int charAt(String s, int d) {
+        return d < s.length() ? s.charAt(d) : -1;
+    }
+
+    private static void exch(String[] a, long[] w, int i, int j) {
+        String s = a[i];
+        a[i] = a[j];
+        a[j] = s;
+        long t = w[i];
+        w[i] = w[j];
+        w[j] = t;
+    }
+
+    /**
+     * Insertion sort of a[lo..hi], whose strings agree on their first d
+     * characters
+     */
+    private static void insertion(String[] a, long[] w, int lo, int hi, int d) {
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && less(a[j], a[j - 1], d); j--) {
+                exch(a, w, j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Compares two strings from their dth characters on
+     */
+    private static boolean less(String v, String u, int d) {
+        int n = Math.min(v.length(), u.length());
+        for (int i = d; i < n; i++) {
+            if (v.charAt(i) != u.charAt(i)) return v.charAt(i) < u.charAt(i);
+        }
+        return v.length() < u.length();
+    }
+
+    /**
+     * Sorts a[lo..hi], whose strings agree on their first d characters
+     */
+    private static class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] a;
+        private final long[] w;
+        private final int lo;
+        private final int hi;
+        private final int d;
+
+        Task(String[] a, long[] w, int lo, int hi, int d) {
+            this.a = a;
+            this.w = w;
+            this.lo = lo;
+            this.hi = hi;
+            this.d = d;
+        }
+
+        protected void compute() {
+            sort(lo, hi, d);
+        }
+
+        /**
+         * Sorts a[lo..hi] in this thread if it is small, else forks a task
+         * for it and adds the task to <code>forked</code>
+         *
+         * @return the forked tasks, allocated on the first fork
+         */
+        private List<Task> sortOrFork(int lo, int hi, int d, List<Task> forked) {
+            if (hi - lo + 1 < PARALLEL) {
+                sort(lo, hi, d);
+                return forked;
+            }
+            Task task = new Task(a, w, lo, hi, d);
+            task.fork();
+            if (forked == null) forked = new ArrayList<Task>();
+            forked.add(task);
+            return forked;
+        }
+
+        private void sort(int lo, int hi, int d) {
+            // the middle part is handled by the loop, so recursion depth does
+            // not grow with the length of shared prefixes; large outer parts
+            // run alongside it and are joined at the end
+            List<Task> forked = null;
+            while (hi - lo >= CUTOFF) {
+                // random pivot: term files often arrive already sorted
+                exch(a, w, lo, lo + ThreadLocalRandom.current().nextInt(hi - lo + 1));
+                int lt = lo;
+                int gt = hi;
+                int v = charAt(a[lo], d);
+                int i = lo + 1;
+                while (i <= gt) {
+                    int t = charAt(a[i], d);
+                    if (t < v) exch(a, w, lt++, i++);
+                    else if (t > v) exch(a, w, i, gt--);
+                    else i++;
+                }
+                // a[lo..lt-1] < v = a[lt..gt] < a[gt+1..hi]
+                forked = sortOrFork(lo, lt - 1, d, forked);
+                forked = sortOrFork(gt + 1, hi, d, forked);
+                // strings that ended at d are equal, so an empty range is left
+                lo = lt;
+                hi = v < 0 ? lt - 1 : gt;
+                d++;
+            }
+            insertion(a, w, lo, hi, d);
+            if (forked != null) {
+                for (Task task : forked) task.join();
+            }
+        }
+    }
+
+    /**
+     * Unit tests <code>ParallelQuick3String</code> against
+     * <code>Arrays.sort</code> and times both
+     *
+     * @param args optional number of strings (default 2,000,000)
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        String[] a = new String[n];
+        long[] w = new long[n];
+        char[] c = new char[12];
+        for (int i = 0; i < n; i++) {
+            int length = StdRandom.uniform(12);
+            for (int j = 0; j < length; j++) {
+                c[j] = (char) ('a' + StdRandom.uniform(i % 2 == 0 ? 3 : 26));
+            }
+            a[i] = new String(c, 0, length);
+            w[i] = a[i].hashCode();
+        }
+        String[] b = a.clone();
+        Stopwatch time = new Stopwatch();
+        Arrays.sort(b);
+        double single = time.elapsedTime();
+        String[] p = a.clone();
+        time = new Stopwatch();
+        Arrays.parallelSort(p);
+        double parallel = time.elapsedTime();
+        time = new Stopwatch();
+        sort(a, w);
+        double quick3 = time.elapsedTime();
+        boolean ok = Arrays.equals(a, b);
+        for (int i = 0; i < n; i++) {
+            if (w[i] != a[i].hashCode()) ok = false;
+        }
+        StdOut.println(ok);
+        StdOut.printf("Arrays.sort %.3f s, Arrays.parallelSort %.3f s, "
+                              + "ParallelQuick3String %.3f s on %d cores%n", single, parallel,
+                      quick3, Runtime.getRuntime().availableProcessors());
+    }
+}
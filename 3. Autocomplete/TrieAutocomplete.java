@@ -0,0 +1,342 @@
+/* *****************************************************************************
+ *  Name:    Alan Turing
+ *  NetID:   aturing
+ *  Precept: P00
+ *
+ *  Partner Name:    Ada Lovelace
+ *  Partner NetID:   alovelace
+ *  Partner Precept: P00
+ *
+ *  Description:  Prints 'Hello, World' to the terminal window.
+ *                By tradition, this is everyone's first program.
+ *                Prof. Brian Kernighan initiated this tradition in 1974.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Autocomplete engine on a compressed radix trie over the sorted terms. Each
+ * node covers the contiguous range of terms that share its string, so
+ * <code>numberOfMatches</code> is read off the node that a prefix ends in, and
+ * each node stores the largest weight below it, so <code>topMatches</code>
+ * expands nodes best-first and stops as soon as k terms are heavier than
+ * every node still unexpanded.
+ */
+public class TrieAutocomplete {
+
+    /**
+     * A trie node
+     * lo, hi: the range of sorted terms below this node
+     * terminals: the number of terms, from lo, whose query ends at this node;
+     * being equal queries they are kept in decreasing order of weight
+     * from, to: the edge label into this node is
+     * terms[lo].getQuery().substring(from, to), so no label is copied
+     * maxWeight: the largest weight of the terms below this node
+     * children: sorted by the first character of their labels
+     * heaviest: the same children, by decreasing maxWeight
+     */
+    private static class Node {
+        private int lo;
+        private int hi;
+        private int terminals;
+        private int from;
+        private int to;
+        private long maxWeight;
+        private Node[] children;
+        private Node[] heaviest;
+    }
+
+    private static final Node[] LEAF = new Node[0];
+
+    /**
+     * terms: the terms, sorted by query
+     * root: the root of the trie, or null if there are no terms
+     */
+    private final Term[] terms;
+    private final Node root;
+
+    /**
+     * Constructor of <code>TrieAutocomplete</code>
+     * Initializes the data structure from the given array of terms.
+     *
+     * @param terms an array of <code>Terms</code>
+     */
+    public TrieAutocomplete(Term[] terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException("Invalid parameter in TrieAutocomplete constructor");
+        }
+        this.terms = terms;
+        Arrays.sort(this.terms);
+        root = terms.length == 0 ? null : build(0, terms.length - 1, 0);
+    }
+
+
+    /**
+     * Returns the length of the longest common prefix of two strings
+     */
+    private static int lcp(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            if (a.charAt(i) != b.charAt(i)) return i;
+        }
+        return n;
+    }
+
+    /**
+     * Builds the subtrie of the sorted terms[lo..hi], which share their first
+     * <code>depth</code> characters; as the terms are sorted, the prefix
+     * common to the whole range is the one shared by its first and last
+     * terms
+     *
+     * @param lo    the first term
+     * @param hi    the last term
+     * @param depth the length of the string spelled by the parent
+     * @return the node
+     */
+    private Node build(int lo, int hi, int depth) {
+        Node node = new Node();
+        node.lo = lo;
+        node.hi = hi;
+        node.from = depth;
+        String first = terms[lo].getQuery();
+        int end = lcp(first, terms[hi].getQuery());
+        node.to = end;
+        int i = lo;
+        while (i <= hi && terms[i].getQuery().length() == end) i++;
+        node.terminals = i - lo;
+        // a stable sort, so equal weights keep their input order as they do
+        // in allMatches
+        if (node.terminals > 1) Arrays.sort(terms, lo, i, Term.byReverseWeightOrder());
+        long max = node.terminals > 0 ? terms[lo].getWeight() : 0;
+        int count = 0;
+        Node[] children = new Node[Math.min(hi - i + 1, 4)];
+        while (i <= hi) {
+            char c = terms[i].getQuery().charAt(end);
+            int j = i;
+            while (j < hi && terms[j + 1].getQuery().charAt(end) == c) j++;
+            Node child = build(i, j, end);
+            max = Math.max(max, child.maxWeight);
+            if (count == children.length) children = Arrays.copyOf(children, 2 * count);
+            children[count++] = child;
+            i = j + 1;
+        }
+        node.children = count == 0 ? LEAF : Arrays.copyOf(children, count);
+        node.heaviest = node.children;
+        if (count > 1) {
+            node.heaviest = node.children.clone();
+            Arrays.sort(node.heaviest, (a, b) -> a.maxWeight != b.maxWeight
+                                                 ? Long.compare(b.maxWeight, a.maxWeight)
+                                                 : Integer.compare(a.lo, b.lo));
+        }
+        node.maxWeight = max;
+        return node;
+    }
+
+    /**
+     * Returns the first character of the label into <code>node</code>
+     */
+    private char firstChar(Node node) {
+        return terms[node.lo].getQuery().charAt(node.from);
+    }
+
+    /**
+     * Returns the highest node whose string starts with <code>prefix</code>,
+     * or null if no term does
+     *
+     * @param prefix the prefix
+     * @return the node
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        if (node == null) return null;
+        int d = 0;
+        while (true) {
+            String label = terms[node.lo].getQuery();
+            for (int i = node.from; i < node.to; i++) {
+                if (d == prefix.length()) return node;
+                if (label.charAt(i) != prefix.charAt(d++)) return null;
+            }
+            if (d == prefix.length()) return node;
+            char c = prefix.charAt(d);
+            Node[] children = node.children;
+            int lo = 0;
+            int hi = children.length - 1;
+            Node next = null;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = firstChar(children[mid]);
+                if (m < c) lo = mid + 1;
+                else if (m > c) hi = mid - 1;
+                else {
+                    next = children[mid];
+                    break;
+                }
+            }
+            if (next == null) return null;
+            node = next;
+        }
+    }
+
+
+    /**
+     * Returns all terms that start with the given prefix, in descending order
+     * of weight.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @return an array of <code>Terms</code> in descending order of weight
+     */
+    public Term[] allMatches(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Invalid parameter in allMatches()");
+        }
+        Node node = find(prefix);
+        if (node == null) return new Term[0];
+        Term[] ans = Arrays.copyOfRange(terms, node.lo, node.hi + 1);
+        Arrays.sort(ans, Term.byReverseWeightOrder());
+        return ans;
+    }
+
+
+    /**
+     * Returns the number of terms that start with the given prefix.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @return the number of terms that start with given prefix
+     */
+    public int numberOfMatches(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Invalid parameter in numberOfMatches()");
+        }
+        Node node = find(prefix);
+        return node == null ? 0 : node.hi - node.lo + 1;
+    }
+
+
+    /**
+     * An entry of the best-first search: either a term, or a node whose
+     * weight is an upper bound on the terms below it
+     * index: the term, or the first term below the node, used to break ties
+     * in sorted order like <code>allMatches</code> does
+     * parent, rank: for a node, its parent and its position in the
+     * parent's heaviest array, so the next lighter sibling is queued only once
+     * this one is taken; for a term, the node it ends at, so the next of
+     * several equal queries is queued the same way
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final long weight;
+        private final int index;
+        private final Node node;
+        private final Node parent;
+        private final int rank;
+
+        Entry(long weight, int index, Node node, Node parent, int rank) {
+            this.weight = weight;
+            this.index = index;
+            this.node = node;
+            this.parent = parent;
+            this.rank = rank;
+        }
+
+        public int compareTo(Entry that) {
+            if (weight != that.weight) return Long.compare(that.weight, weight);
+            if (index != that.index) return Integer.compare(index, that.index);
+            // a node and its own first term: expand the node first
+            return (node == null ? 1 : 0) - (that.node == null ? 1 : 0);
+        }
+    }
+
+
+    /**
+     * Returns an entry for the child of <code>parent</code> of the given rank
+     */
+    private static Entry child(Node parent, int rank) {
+        Node node = parent.heaviest[rank];
+        return new Entry(node.maxWeight, node.lo, node, parent, rank);
+    }
+
+    /**
+     * Returns an entry for term i, which ends at <code>node</code>
+     */
+    private Entry terminal(Node node, int i) {
+        return new Entry(terms[i].getWeight(), i, null, node, 0);
+    }
+
+    /**
+     * Returns the k heaviest terms that start with the given prefix, in
+     * descending order of weight; ties are broken as in
+     * <code>allMatches</code>. A node's children, and its terms, are queued
+     * one at a time in order of weight, each when the one before it is taken,
+     * so a query touches O(k) entries per level of the trie however wide the
+     * nodes are.
+     *
+     * @param prefix the prefix that the terms should start with
+     * @param k      the maximum number of terms to return
+     * @return an array of at most k <code>Terms</code> in descending order of
+     * weight
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null || k < 0) {
+            throw new IllegalArgumentException("Invalid parameter in topMatches()");
+        }
+        Node start = find(prefix);
+        if (start == null || k == 0) return new Term[0];
+        Term[] ans = new Term[Math.min(k, start.hi - start.lo + 1)];
+        PriorityQueue<Entry> pq = new PriorityQueue<Entry>();
+        pq.add(new Entry(start.maxWeight, start.lo, start, null, 0));
+        int n = 0;
+        while (n < ans.length) {
+            Entry e = pq.remove();
+            if (e.node == null) {
+                ans[n++] = terms[e.index];
+                if (e.index + 1 < e.parent.lo + e.parent.terminals) {
+                    pq.add(terminal(e.parent, e.index + 1));
+                }
+                continue;
+            }
+            Node node = e.node;
+            if (e.parent != null && e.rank + 1 < e.parent.heaviest.length) {
+                pq.add(child(e.parent, e.rank + 1));
+            }
+            if (node.terminals > 0) pq.add(terminal(node, node.lo));
+            if (node.heaviest.length > 0) pq.add(child(node, 0));
+        }
+        return ans;
+    }
+
+    /**
+     * Unit testing of <code>TrieAutocomplete</code> data type from a file
+     * inputted
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        // read in the terms from a file
+        String filename = args[0];
+        In in = new In(filename);
+        int n = in.readInt();
+        Term[] terms = new Term[n];
+        for (int i = 0; i < n; i++) {
+            long weight = in.readLong();           // read the next weight
+            in.readChar();                         // scan past the tab
+            String query = in.readLine();          // read the next query
+            terms[i] = new Term(query, weight);    // construct the term
+        }
+
+        // read in queries from standard input and print the top k matching terms
+        int k = Integer.parseInt(args[1]);
+        TrieAutocomplete autocomplete = new TrieAutocomplete(terms);
+        while (StdIn.hasNextLine()) {
+            String prefix = StdIn.readLine();
+            Term[] results = autocomplete.topMatches(prefix, k);
+            StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
+            for (int i = 0; i < results.length; i++)
+                StdOut.println(results[i]);
+        }
+    }
+}